@@ -3,12 +3,16 @@ package com.example.WritingDepartmentFiles;
 import com.example.logging.DataValidLogger;
 import com.example.logging.FileErrorLogger;
 import com.example.directoriesManager.DirectoryManager;
+import com.example.model.EmployeeRecord;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -20,7 +24,7 @@ public class DepartmentFilesWriter implements FilesWriter {
 
 
     @Override
-    public void writeDepartmentFile(String department, List<String[]> data) throws IOException {
+    public void writeDepartmentFile(String department, List<EmployeeRecord> data) throws IOException {
         if (data == null || department == null) {
             String reason = "Invalid input: " + (data == null ? "data is null" : "department is null");
             errorDataLogger.logDataValidation(reason);
@@ -47,14 +51,41 @@ public class DepartmentFilesWriter implements FilesWriter {
         writeToFile(outputFile, lines);
     }
 
+    // Потоковая запись отдела, который целиком в памяти не помещается; строки пишутся по мере чтения records
+    public void writeDepartmentFile(String department, Iterator<EmployeeRecord> records) throws IOException {
+        String cleanedDepartment = cleanDepartmentName(department);
+        if (cleanedDepartment.isEmpty()) {
+            errorDataLogger.logDataValidation("Empty department name: " + department);
+            return;
+        }
+
+        Path outputFile = OUTPUT_DIR.resolve(cleanedDepartment + ".sb");
+        try (BufferedWriter out = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (records.hasNext()) {
+                out.write(records.next().toLine());
+                out.newLine();
+            }
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to write to file " + outputFile + ": " + e.getMessage() + ". Proceeding with partial execution.");
+            throw e;
+        }
+    }
+
+    public void deleteDepartmentFile(String department) throws IOException {
+        String cleanedDepartment = cleanDepartmentName(department);
+        if (!cleanedDepartment.isEmpty()) {
+            Files.deleteIfExists(OUTPUT_DIR.resolve(cleanedDepartment + ".sb"));
+        }
+    }
+
     private String cleanDepartmentName(String department) {
         return department.replaceAll("[^a-zA-Z0-9-_.]", "").trim();
     }
 
-    private List<String> convertDataToLines(List<String[]> data) {
+    private List<String> convertDataToLines(List<EmployeeRecord> data) {
         List<String> lines = new ArrayList<>();
-        for (String[] fields : data) {
-            lines.add(String.join(",", fields).trim());
+        for (EmployeeRecord record : data) {
+            lines.add(record.toLine());
         }
         return lines;
     }
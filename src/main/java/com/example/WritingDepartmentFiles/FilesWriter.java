@@ -1,8 +1,10 @@
 package com.example.WritingDepartmentFiles;
 
+import com.example.model.EmployeeRecord;
+
 import java.io.IOException;
 import java.util.List;
 
 public interface FilesWriter {
-    void writeDepartmentFile(String department, List<String[]> data) throws IOException;
+    void writeDepartmentFile(String department, List<EmployeeRecord> data) throws IOException;
 }
@@ -11,22 +11,81 @@ public class ApplicationConfig {
     private final String sortBy;
     private final String sortOrder;
     private final boolean stat;
+    private final boolean statOnly;
+    private final boolean rollup;
     private String output;
     private final String outputPath;
+    private final String format;
+    private final String readerMode;
+    private final int threads;
+    private final int chunkSizeMb;
+    private final boolean incremental;
+    private final int departmentThreads;
+    private final int writeConcurrency;
+    private final int top;
+    // Не действует на сортировку только по зарплате от 1024 строк: она всегда поразрядная
+    private final int parallelSortThreshold;
+    private final String collation;
+    private final int memoryBudgetMb;
+    private final boolean quantiles;
+    private final double quantileErrorPercent;
+    private final boolean snapshot;
+    private final boolean watch;
+    private final int debounceMillis;
 
     protected ApplicationConfig(String sortBy, String sortOrder, boolean stat, String output, String outputPath) {
-        this.sortBy = sortBy;
-        this.sortOrder = sortOrder;
-        this.stat = stat;
-        this.output = (output != null) ? output : AppConstants.DEFAULT_OUTPUT.getValue();
-        this.outputPath = outputPath;
+        this(new ConfigBuilder().setSortBy(sortBy).setSortOrder(sortOrder).setStat(stat).setOutput(output).setOutputPath(outputPath));
+    }
+
+    protected ApplicationConfig(ConfigBuilder builder) {
+        this.sortBy = builder.sortBy;
+        this.sortOrder = builder.sortOrder;
+        this.stat = builder.stat;
+        this.statOnly = builder.statOnly;
+        this.rollup = builder.rollup;
+        this.output = (builder.output != null) ? builder.output : AppConstants.DEFAULT_OUTPUT.getValue();
+        this.outputPath = builder.outputPath;
+        this.format = (builder.format != null) ? builder.format : AppConstants.FORMAT_CSV.getValue();
+        this.readerMode = (builder.readerMode != null) ? builder.readerMode : AppConstants.READER_TEXT.getValue();
+        this.threads = builder.threads;
+        this.chunkSizeMb = builder.chunkSizeMb;
+        this.departmentThreads = builder.departmentThreads;
+        this.writeConcurrency = builder.writeConcurrency;
+        this.top = builder.top;
+        this.parallelSortThreshold = builder.parallelSortThreshold;
+        this.collation = builder.collation;
+        this.memoryBudgetMb = builder.memoryBudgetMb;
+        this.quantiles = builder.quantiles;
+        this.quantileErrorPercent = builder.quantileErrorPercent;
+        this.snapshot = builder.snapshot;
+        this.watch = builder.watch;
+        this.incremental = builder.incremental || builder.watch; // Режим наблюдения всегда инкрементальный
+        this.debounceMillis = builder.debounceMillis;
     }
 
     public String getSortBy() { return sortBy; }
     public String getSortOrder() { return sortOrder; }
     public boolean isStat() { return stat; }
+    public boolean isStatOnly() { return statOnly; }
+    public boolean isRollup() { return rollup; }
     public String getOutput() { return output; }
     public String getOutputPath() { return outputPath; }
+    public String getFormat() { return format; }
+    public String getReaderMode() { return readerMode; }
+    public int getThreads() { return threads; }
+    public int getChunkSizeMb() { return chunkSizeMb; }
+    public boolean isIncremental() { return incremental; }
+    public int getDepartmentThreads() { return departmentThreads; }
+    public int getWriteConcurrency() { return writeConcurrency; }
+    public int getTop() { return top; }
+    public int getParallelSortThreshold() { return parallelSortThreshold; }
+    public String getCollation() { return collation; }
+    public int getMemoryBudgetMb() { return memoryBudgetMb; }
+    public boolean isQuantiles() { return quantiles; }
+    public double getQuantileErrorPercent() { return quantileErrorPercent; }
+    public boolean isSnapshot() { return snapshot; }
+    public boolean isWatch() { return watch; }
+    public int getDebounceMillis() { return debounceMillis; }
 
     public static ApplicationConfig fromArgs(String[] args) {
         ConfigBuilder builder = new ConfigBuilder();
@@ -48,10 +107,25 @@ public class ApplicationConfig {
             errorDataLogger.logDataValidation("Order parameter is missing for sortBy '%s', valid parameters: name, salary. Execution will proceed without sorting.", sortBy);
         } else if (sortOrder != null && sortBy == null) {
             errorDataLogger.logDataValidation("Sort parameter is missing for sortOrder '%s', valid parameters: desc, asc. Execution will proceed without sorting.", sortOrder);
+        } else if (sortBy != null && sortOrder.split(",").length > sortBy.split(",").length) {
+            errorDataLogger.logDataValidation("Ignoring extra sortOrder values in '%s': only %d sort keys given in '%s'.", sortOrder, sortBy.split(",").length, sortBy);
+        }
+        // Инкрементальный режим (и --watch) перечитывает файлы по одному и пересобирает отделы из кэша
+        if (incremental && !statOnly) {
+            logIgnoredInIncrementalMode("--threads", threads > 1);
+            logIgnoredInIncrementalMode("--department-threads", departmentThreads > 1);
+            logIgnoredInIncrementalMode("--memory-budget", memoryBudgetMb > 0);
+            logIgnoredInIncrementalMode("--snapshot", snapshot);
         }
         return this;
     }
 
+    private static void logIgnoredInIncrementalMode(String option, boolean given) {
+        if (given) {
+            errorDataLogger.logDataValidation("Ignoring %s in incremental mode: changed files are re-read one by one and departments are rebuilt from the cache.", option);
+        }
+    }
+
     public void validate() {
         if (!AppConstants.OUTPUT_FILE.getValue().equals(output) && !AppConstants.DEFAULT_OUTPUT.getValue().equals(output)) {
             errorDataLogger.logDataValidation("Invalid output value '%s'. Switching to console output for statistics.", output);
@@ -76,53 +150,16 @@ public class ApplicationConfig {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ApplicationConfig that = (ApplicationConfig) o;
-        return stat == that.stat && Objects.equals(sortBy, that.sortBy) && Objects.equals(sortOrder, that.sortOrder) && Objects.equals(output, that.output) && Objects.equals(outputPath, that.outputPath);
+        return stat == that.stat && statOnly == that.statOnly && rollup == that.rollup && threads == that.threads && chunkSizeMb == that.chunkSizeMb && incremental == that.incremental && departmentThreads == that.departmentThreads && writeConcurrency == that.writeConcurrency && top == that.top && parallelSortThreshold == that.parallelSortThreshold && memoryBudgetMb == that.memoryBudgetMb && quantiles == that.quantiles && Double.compare(quantileErrorPercent, that.quantileErrorPercent) == 0 && snapshot == that.snapshot && watch == that.watch && debounceMillis == that.debounceMillis && Objects.equals(sortBy, that.sortBy) && Objects.equals(sortOrder, that.sortOrder) && Objects.equals(output, that.output) && Objects.equals(outputPath, that.outputPath) && Objects.equals(format, that.format) && Objects.equals(readerMode, that.readerMode) && Objects.equals(collation, that.collation);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sortBy, sortOrder, stat, output, outputPath);
+        return Objects.hash(sortBy, sortOrder, stat, statOnly, rollup, output, outputPath, format, readerMode, threads, chunkSizeMb, incremental, departmentThreads, writeConcurrency, top, parallelSortThreshold, collation, memoryBudgetMb, quantiles, quantileErrorPercent, snapshot, watch, debounceMillis);
     }
 
     @Override
     public String toString() {
-        return "ApplicationConfig{" + "sortBy='" + sortBy + '\'' + ", sortOrder='" + sortOrder + '\'' + ", stat=" + stat + ", output='" + output + '\'' + ", outputPath='" + outputPath + '\'' + '}';
-    }
-
-    public static class ConfigBuilder {
-        private String sortBy;
-        private String sortOrder;
-        private boolean stat = false;
-        private String output = "console";
-        private String outputPath;
-
-        public ConfigBuilder setSortBy(String sortBy) {
-            this.sortBy = sortBy;
-            return this;
-        }
-
-        public ConfigBuilder setSortOrder(String sortOrder) {
-            this.sortOrder = sortOrder;
-            return this;
-        }
-
-        public ConfigBuilder setStat(boolean stat) {
-            this.stat = stat;
-            return this;
-        }
-
-        public ConfigBuilder setOutput(String output) {
-            this.output = output;
-            return this;
-        }
-
-        public ConfigBuilder setOutputPath(String outputPath) {
-            this.outputPath = outputPath;
-            return this;
-        }
-
-        public ApplicationConfig build() {
-            return new ApplicationConfig(sortBy, sortOrder, stat, output, outputPath);
-        }
+        return "ApplicationConfig{" + "sortBy='" + sortBy + '\'' + ", sortOrder='" + sortOrder + '\'' + ", stat=" + stat + ", statOnly=" + statOnly + ", rollup=" + rollup + ", output='" + output + '\'' + ", outputPath='" + outputPath + '\'' + ", format='" + format + '\'' + ", readerMode='" + readerMode + '\'' + ", threads=" + threads + ", chunkSizeMb=" + chunkSizeMb + ", incremental=" + incremental + ", departmentThreads=" + departmentThreads + ", writeConcurrency=" + writeConcurrency + ", top=" + top + ", parallelSortThreshold=" + parallelSortThreshold + ", collation='" + collation + '\'' + ", memoryBudgetMb=" + memoryBudgetMb + ", quantiles=" + quantiles + ", quantileErrorPercent=" + quantileErrorPercent + ", snapshot=" + snapshot + ", watch=" + watch + ", debounceMillis=" + debounceMillis + '}';
     }
 }
\ No newline at end of file
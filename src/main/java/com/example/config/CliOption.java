@@ -6,12 +6,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.Optional;
 
 public enum CliOption {
     SORT("--sort", "-s", "sort", true) {
         @Override
-        public void apply(ApplicationConfig.ConfigBuilder builder, String value) {
+        public void apply(ConfigBuilder builder, String value) {
             if (value != null && isValidSortValue(value)) {
                 builder.setSortBy(value);
             } else if (value != null) {
@@ -23,7 +24,7 @@ public enum CliOption {
 
     ORDER("--order", null, "order", true) {
         @Override
-        public void apply(ApplicationConfig.ConfigBuilder builder, String value) {
+        public void apply(ConfigBuilder builder, String value) {
             if (value != null && isValidOrderValue(value)) {
                 builder.setSortOrder(value);
             } else if (value != null) {
@@ -35,27 +36,215 @@ public enum CliOption {
 
     STAT("--stat", null, "stat", false) {
         @Override
-        public void apply(ApplicationConfig.ConfigBuilder builder, String value) {
+        public void apply(ConfigBuilder builder, String value) {
             builder.setStat(true);
         }
     },
 
+    // Только статистика, без файлов отделов: считается из сохранённых частичных агрегатов по входным файлам
+    STAT_ONLY("--stat-only", null, "stat-only", false) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            builder.setStat(true);
+            builder.setStatOnly(true);
+        }
+    },
+
+    // Статистика по уровням: менеджеры, отделы и итог по компании
+    ROLLUP("--rollup", null, "rollup", false) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            builder.setRollup(true);
+        }
+    },
+
     OUTPUT("--output", "-o", "output", true) {
         @Override
-        public void apply(ApplicationConfig.ConfigBuilder builder, String value) {
+        public void apply(ConfigBuilder builder, String value) {
             builder.setOutput(value);
         }
     },
 
     PATH("--path", null, "path", true) {
         @Override
-        public void apply(ApplicationConfig.ConfigBuilder builder, String value) {
+        public void apply(ConfigBuilder builder, String value) {
             if (value != null && !value.trim().isEmpty()) {
                 builder.setOutputPath(value);
             } else {
                 throw new IllegalArgumentException("Path must not be empty");
             }
         }
+    },
+
+    FORMAT("--format", null, "format", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            if (value != null && isValidFormatValue(value)) {
+                builder.setFormat(value);
+            } else if (value != null) {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid format value '%s'. Valid values are: %s. Using csv format.",
+                        value, Arrays.toString(AppConstants.getValidFormatValues()));
+            }
+        }
+    },
+
+    READER("--reader", null, "reader", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            if (value != null && isValidReaderValue(value)) {
+                builder.setReaderMode(value);
+            } else if (value != null) {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid reader value '%s'. Valid values are: %s. Using text reader.",
+                        value, Arrays.toString(AppConstants.getValidReaderValues()));
+            }
+        }
+    },
+
+    THREADS("--threads", "-t", "threads", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer threads = parsePositiveInt(value);
+            if (threads != null) {
+                builder.setThreads(threads);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid threads value '%s'. Expected a positive integer. Execution will proceed sequentially.", value);
+            }
+        }
+    },
+
+    CHUNK_SIZE("--chunk-size", null, "chunk-size", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer chunkSizeMb = parsePositiveInt(value);
+            if (chunkSizeMb != null) {
+                builder.setChunkSizeMb(chunkSizeMb);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid chunk-size value '%s'. Expected a positive number of megabytes.", value);
+            }
+        }
+    },
+
+    INCREMENTAL("--incremental", null, "incremental", false) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            builder.setIncremental(true);
+        }
+    },
+
+    DEPARTMENT_THREADS("--department-threads", null, "department-threads", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer parsed = parsePositiveInt(value);
+            if (parsed != null) {
+                builder.setDepartmentThreads(parsed);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid department-threads value '%s'. Expected a positive integer. Departments will be processed sequentially.", value);
+            }
+        }
+    },
+
+    WRITE_CONCURRENCY("--write-concurrency", null, "write-concurrency", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer parsed = parsePositiveInt(value);
+            if (parsed != null) {
+                builder.setWriteConcurrency(parsed);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid write-concurrency value '%s'. Expected a positive integer.", value);
+            }
+        }
+    },
+
+    TOP("--top", null, "top", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer top = parsePositiveInt(value);
+            if (top != null) {
+                builder.setTop(top);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid top value '%s'. Expected a positive integer. All rows will be written.", value);
+            }
+        }
+    },
+
+    COLLATION("--collation", null, "collation", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            if (value != null && isValidLocaleValue(value)) {
+                builder.setCollation(value);
+            } else if (value != null) {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid collation value '%s'. Expected a language tag such as 'ru' or 'de-DE'. Names will be compared by code point.", value);
+            }
+        }
+    },
+
+    PARALLEL_SORT_THRESHOLD("--parallel-sort-threshold", null, "parallel-sort-threshold", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer threshold = parsePositiveInt(value);
+            if (threshold != null) {
+                builder.setParallelSortThreshold(threshold);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid parallel-sort-threshold value '%s'. Expected a positive number of rows.", value);
+            }
+        }
+    },
+
+    MEMORY_BUDGET("--memory-budget", null, "memory-budget", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer budget = parsePositiveInt(value);
+            if (budget != null) {
+                builder.setMemoryBudgetMb(budget);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid memory-budget value '%s'. Expected a positive number of megabytes. Departments will be kept in memory.", value);
+            }
+        }
+    },
+
+    QUANTILES("--quantiles", null, "quantiles", false) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            builder.setQuantiles(true);
+        }
+    },
+
+    QUANTILE_ERROR("--quantile-error", null, "quantile-error", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Double error = parsePercent(value);
+            if (error != null) {
+                builder.setQuantileErrorPercent(error);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid quantile-error value '%s'. Expected a percentage between 0 and 50. Using 1%%.", value);
+            }
+        }
+    },
+
+    SNAPSHOT("--snapshot", null, "snapshot", false) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            builder.setSnapshot(true);
+        }
+    },
+
+    WATCH("--watch", "-w", "watch", false) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            builder.setWatch(true);
+        }
+    },
+
+    DEBOUNCE("--debounce", null, "debounce", true) {
+        @Override
+        public void apply(ConfigBuilder builder, String value) {
+            Integer debounceMillis = parsePositiveInt(value);
+            if (debounceMillis != null) {
+                builder.setDebounceMillis(debounceMillis);
+            } else {
+                ApplicationConfig.errorDataLogger.logDataValidation("Ignoring invalid debounce value '%s'. Expected a positive number of milliseconds.", value);
+            }
+        }
     };
 
     private static final Logger logger = LoggerFactory.getLogger(CliOption.class);
@@ -73,12 +262,14 @@ public enum CliOption {
         this.hasValue = hasValue;
     }
 
-    public abstract void apply(ApplicationConfig.ConfigBuilder builder, String value);
+    public abstract void apply(ConfigBuilder builder, String value);
 
+    // Короткий флаг без значения (-w) принимается и без '='
     public static Optional<CliOption> fromString(String arg) {
         return Arrays.stream(values())
                 .filter(option -> arg.equals(option.longName) ||
                         (option.shortName != null && arg.startsWith(option.shortName + "=")) ||
+                        (option.shortName != null && !option.hasValue && arg.equals(option.shortName)) ||
                         arg.startsWith(option.longName + "="))
                 .findFirst();
     }
@@ -91,12 +282,51 @@ public enum CliOption {
         return null;
     }
 
+    // --sort и --order принимают списки через запятую: --sort=salary,name --order=desc,asc
     private static boolean isValidSortValue(String value) {
-        return value != null && Arrays.stream(AppConstants.getValidSortValues())
-                .anyMatch(validValue -> validValue.equals(value));
+        return value != null && Arrays.stream(value.split(",", -1))
+                .allMatch(item -> Arrays.asList(AppConstants.getValidSortValues()).contains(item.trim()));
+    }
+
+    private static Integer parsePositiveInt(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            return parsed > 0 ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parsePercent(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            return parsed > 0 && parsed < 50 ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isValidFormatValue(String value) {
+        return Arrays.asList(AppConstants.getValidFormatValues()).contains(value);
+    }
+
+    private static boolean isValidReaderValue(String value) {
+        return Arrays.asList(AppConstants.getValidReaderValues()).contains(value);
+    }
+
+    private static boolean isValidLocaleValue(String value) {
+        return !value.isBlank() && !Locale.forLanguageTag(value).getLanguage().isEmpty();
     }
 
     private static boolean isValidOrderValue(String value) {
-        return value != null && (AppConstants.ORDER_ASC.getValue().equals(value) || AppConstants.ORDER_DESC.getValue().equals(value));
+        return value != null && Arrays.stream(value.split(",", -1))
+                .map(String::trim)
+                .allMatch(item -> AppConstants.ORDER_ASC.getValue().equals(item) || AppConstants.ORDER_DESC.getValue().equals(item));
     }
 }
\ No newline at end of file
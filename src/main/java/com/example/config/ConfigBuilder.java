@@ -2,11 +2,29 @@ package com.example.config;
 
 
 public class ConfigBuilder {
-    private String sortBy;
-    private String sortOrder;
-    private boolean stat = false;
-    private String output = "console";
-    private String outputPath;
+    String sortBy;
+    String sortOrder;
+    boolean stat = false;
+    boolean statOnly = false;
+    boolean rollup = false;
+    String output = "console";
+    String outputPath;
+    String format;
+    String readerMode;
+    int threads = 1;
+    int chunkSizeMb = 64;
+    boolean incremental = false;
+    int departmentThreads = 1;
+    int writeConcurrency = 2;
+    int top = 0;
+    int parallelSortThreshold = 100_000;
+    String collation;
+    int memoryBudgetMb = 0;
+    boolean quantiles = false;
+    double quantileErrorPercent = 1.0;
+    boolean snapshot = false;
+    boolean watch = false;
+    int debounceMillis = 500;
 
     public ConfigBuilder setSortBy(String sortBy) {
         this.sortBy = sortBy;
@@ -23,6 +41,16 @@ public class ConfigBuilder {
         return this;
     }
 
+    public ConfigBuilder setStatOnly(boolean statOnly) {
+        this.statOnly = statOnly;
+        return this;
+    }
+
+    public ConfigBuilder setRollup(boolean rollup) {
+        this.rollup = rollup;
+        return this;
+    }
+
     public ConfigBuilder setOutput(String output) {
         this.output = output;
         return this;
@@ -33,7 +61,87 @@ public class ConfigBuilder {
         return this;
     }
 
+    public ConfigBuilder setFormat(String format) {
+        this.format = format;
+        return this;
+    }
+
+    public ConfigBuilder setReaderMode(String readerMode) {
+        this.readerMode = readerMode;
+        return this;
+    }
+
+    public ConfigBuilder setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public ConfigBuilder setChunkSizeMb(int chunkSizeMb) {
+        this.chunkSizeMb = chunkSizeMb;
+        return this;
+    }
+
+    public ConfigBuilder setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    public ConfigBuilder setDepartmentThreads(int departmentThreads) {
+        this.departmentThreads = departmentThreads;
+        return this;
+    }
+
+    public ConfigBuilder setWriteConcurrency(int writeConcurrency) {
+        this.writeConcurrency = writeConcurrency;
+        return this;
+    }
+
+    public ConfigBuilder setTop(int top) {
+        this.top = top;
+        return this;
+    }
+
+    public ConfigBuilder setParallelSortThreshold(int parallelSortThreshold) {
+        this.parallelSortThreshold = parallelSortThreshold;
+        return this;
+    }
+
+    public ConfigBuilder setCollation(String collation) {
+        this.collation = collation;
+        return this;
+    }
+
+    public ConfigBuilder setMemoryBudgetMb(int memoryBudgetMb) {
+        this.memoryBudgetMb = memoryBudgetMb;
+        return this;
+    }
+
+    public ConfigBuilder setQuantiles(boolean quantiles) {
+        this.quantiles = quantiles;
+        return this;
+    }
+
+    public ConfigBuilder setQuantileErrorPercent(double quantileErrorPercent) {
+        this.quantileErrorPercent = quantileErrorPercent;
+        return this;
+    }
+
+    public ConfigBuilder setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    public ConfigBuilder setWatch(boolean watch) {
+        this.watch = watch;
+        return this;
+    }
+
+    public ConfigBuilder setDebounceMillis(int debounceMillis) {
+        this.debounceMillis = debounceMillis;
+        return this;
+    }
+
     public ApplicationConfig build() {
-        return new ApplicationConfig( sortBy, sortOrder, stat, output, outputPath);
+        return new ApplicationConfig(this);
     }
 }
\ No newline at end of file
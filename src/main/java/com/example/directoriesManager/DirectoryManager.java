@@ -13,6 +13,7 @@ public class DirectoryManager {
     private static final Path OUTPUT_DIR = Paths.get("src/main/resources/output").toAbsolutePath();
     private static final Path DEPARTMENTS_DIR = Paths.get("src/main/resources/output/departaments").toAbsolutePath();
     private static final Path LOG_PACKAGE = OUTPUT_DIR.resolve("logs").toAbsolutePath().normalize();
+    private static final Path CACHE_DIR = OUTPUT_DIR.resolve("cache").toAbsolutePath().normalize();
 
     private DirectoryManager() {
     }
@@ -28,6 +29,9 @@ public class DirectoryManager {
             if (!Files.exists(LOG_PACKAGE)) {
                 Files.createDirectories(LOG_PACKAGE);
             }
+            if (!Files.exists(CACHE_DIR)) {
+                Files.createDirectories(CACHE_DIR);
+            }
         } catch (IOException e) {
             logger.error("Failed to create directories: {}", e.getMessage());
             throw new RuntimeException("Unable to initialize directories: " + e.getMessage(), e);
@@ -45,4 +49,8 @@ public class DirectoryManager {
     public static Path getDepartmentsDir() {
         return DEPARTMENTS_DIR;
     }
+
+    public static Path getCacheDir() {
+        return CACHE_DIR;
+    }
 }
\ No newline at end of file
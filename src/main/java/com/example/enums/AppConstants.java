@@ -9,6 +9,10 @@ public enum AppConstants {
     SORT_SALARY("salary"),
     ORDER_ASC("asc"),
     ORDER_DESC("desc"),
+    READER_TEXT("text"),
+    READER_MMAP("mmap"),
+    FORMAT_CSV("csv"),
+    FORMAT_JSON("json"),
     ErrorDetail_Path("error_details.log"),
     Error_Path("errors.log");
 
@@ -26,5 +30,13 @@ public enum AppConstants {
         return new String[]{SORT_NAME.getValue(), SORT_SALARY.getValue()};
     }
 
+    public static String[] getValidReaderValues() {
+        return new String[]{READER_TEXT.getValue(), READER_MMAP.getValue()};
+    }
+
+    public static String[] getValidFormatValues() {
+        return new String[]{FORMAT_CSV.getValue(), FORMAT_JSON.getValue()};
+    }
+
 
 }
\ No newline at end of file
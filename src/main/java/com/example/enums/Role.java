@@ -0,0 +1,26 @@
+package com.example.enums;
+
+public enum Role {
+    MANAGER(AppConstants.MANAGER_ROLE.getValue()),
+    EMPLOYEE(AppConstants.EMPLOYEE_ROLE.getValue());
+
+    private final String value;
+
+    Role(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static Role fromValue(String value) {
+        if (MANAGER.value.equals(value)) {
+            return MANAGER;
+        }
+        if (EMPLOYEE.value.equals(value)) {
+            return EMPLOYEE;
+        }
+        return null;
+    }
+}
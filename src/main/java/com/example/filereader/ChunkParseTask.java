@@ -0,0 +1,50 @@
+package com.example.filereader;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+// Fork/join-разбор диапазонов одного файла; части склеиваются слева направо, поэтому порядок записей и ошибок
+// совпадает с последовательным чтением
+public class ChunkParseTask extends RecursiveTask<ParsedChunk> {
+    private static final long serialVersionUID = 1L;
+
+    private final FileChannel channel;
+    private final List<long[]> ranges;
+    private final int from;
+    private final int to;
+
+    public ChunkParseTask(FileChannel channel, List<long[]> ranges) {
+        this(channel, ranges, 0, ranges.size());
+    }
+
+    private ChunkParseTask(FileChannel channel, List<long[]> ranges, int from, int to) {
+        this.channel = channel;
+        this.ranges = ranges;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected ParsedChunk compute() {
+        if (to - from == 1) {
+            long[] range = ranges.get(from);
+            ParsedChunk chunk = new ParsedChunk();
+            try {
+                chunk.setLineCount(new MappedRecordReader(chunk).read(channel, range[0], range[1], chunk));
+            } catch (IOException e) {
+                chunk.fail(e);
+            }
+            return chunk;
+        }
+
+        int middle = (from + to) >>> 1;
+        ChunkParseTask left = new ChunkParseTask(channel, ranges, from, middle);
+        left.fork();
+        ParsedChunk right = new ChunkParseTask(channel, ranges, middle, to).compute();
+        ParsedChunk result = left.join();
+        result.append(right);
+        return result;
+    }
+}
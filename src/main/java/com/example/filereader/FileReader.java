@@ -3,17 +3,45 @@ package com.example.filereader;
 import com.example.logging.CriticalErrorLogger;
 import com.example.logging.DataValidLogger;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 public class FileReader {
     private static final DataValidLogger errorDataLogger = new DataValidLogger();
     private static final CriticalErrorLogger criticalLogger = new CriticalErrorLogger();
+    private static final String INPUT_GLOB = "*.{sb,sb.gz}";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
 
     public static List<String> readSbFiles(Path directoryPath) throws IOException {
+        List<String> allLines = new ArrayList<>();
+        readSbFiles(directoryPath, allLines::add);
+        return allLines;
+    }
+
+    // Потоковое чтение: строки передаются обработчику по одной, файл целиком в память не загружается
+    public static void readSbFiles(Path directoryPath, LineHandler handler) throws IOException {
+        forEachSbFile(directoryPath, file -> {
+            readLines(file, handler);
+            return 0;
+        });
+    }
+
+    // Чтение сразу в записи выбранным парсером; возвращает общее количество строк
+    public static long readSbFiles(Path directoryPath, RecordReader reader, RecordHandler handler) throws IOException {
+        return forEachSbFile(directoryPath, file -> reader.read(file, handler));
+    }
+
+    public static List<Path> listSbFiles(Path directoryPath) throws IOException {
         if (!Files.exists(directoryPath)) {
 
             criticalLogger.logCriticalError("Critical error: Directory does not exist at: " + directoryPath.toAbsolutePath() + ". Execution terminated.");
@@ -25,23 +53,71 @@ public class FileReader {
             throw new IOException("Path is not a directory: " + directoryPath);
         }
 
-        List<String> allLines = new ArrayList<>();
-        try (var stream = Files.newDirectoryStream(directoryPath, "*.sb")) {
+        List<Path> files = new ArrayList<>();
+        try (var stream = Files.newDirectoryStream(directoryPath, INPUT_GLOB)) {
             for (Path file : stream) {
                 if (Files.isRegularFile(file)) {
-                    try {
-                        List<String> lines = Files.readAllLines(file);
-                        allLines.addAll(lines);
-                    } catch (IOException e) {
-                        errorDataLogger.logDataValidation("Failed to read file: " + file.toString() + ": " + e.getMessage() + ". Proceeding with partial execution.");
-                    }
+                    files.add(file);
                 }
             }
         } catch (IOException e) {
             criticalLogger.logCriticalError("Critical error walking directory: " + e.getMessage() + ". Execution terminated.");
             throw e;
         }
-        return allLines;
+        return files;
+    }
+
+    public static boolean isInputFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".sb") || name.endsWith(".sb" + GZIP_SUFFIX);
+    }
+
+    public static boolean isCompressed(Path file) {
+        return file.getFileName().toString().endsWith(GZIP_SUFFIX);
+    }
+
+    // .sb.gz распаковывается на лету потоком, без промежуточного файла на диске
+    public static InputStream openInput(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (!isCompressed(file)) {
+            return in;
+        }
+        try {
+            return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public static BufferedReader openReader(Path file) throws IOException {
+        if (!isCompressed(file)) {
+            return Files.newBufferedReader(file);
+        }
+        // Строгий декодер, как у Files.newBufferedReader: на битом UTF-8 чтение файла обрывается ошибкой, а не подменяет символы;
+        // строки, прочитанные до ошибки, остаются в обработке
+        return new BufferedReader(new InputStreamReader(new BufferedInputStream(openInput(file), GZIP_BUFFER_SIZE), StandardCharsets.UTF_8.newDecoder()));
+    }
+
+    private static long forEachSbFile(Path directoryPath, FileTask task) throws IOException {
+        long lineCount = 0;
+        for (Path file : listSbFiles(directoryPath)) {
+            try {
+                lineCount += task.run(file);
+            } catch (IOException e) {
+                errorDataLogger.logDataValidation("Failed to read file: " + file.toString() + ": " + e.getMessage() + ". Proceeding with partial execution.");
+            }
+        }
+        return lineCount;
+    }
+
+    private static void readLines(Path file, LineHandler handler) throws IOException {
+        try (BufferedReader reader = openReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                handler.handle(line);
+            }
+        }
     }
 
     public static String[] parseLine(String line) {
@@ -56,4 +132,9 @@ public class FileReader {
         }
         return fields;
     }
-}
\ No newline at end of file
+
+    @FunctionalInterface
+    private interface FileTask {
+        long run(Path file) throws IOException;
+    }
+}
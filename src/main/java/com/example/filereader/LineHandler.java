@@ -0,0 +1,8 @@
+package com.example.filereader;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface LineHandler {
+    void handle(String line) throws IOException;
+}
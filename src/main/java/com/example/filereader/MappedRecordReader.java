@@ -0,0 +1,267 @@
+package com.example.filereader;
+
+import com.example.enums.Role;
+import com.example.logging.DataError;
+import com.example.logging.DataValidLogger;
+import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+import com.example.model.Salary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Разбор .sb через FileChannel.map: байты сканируются напрямую, без split и промежуточных строк.
+// Строки декодируются только для имени, отдела, сообщений об ошибках и ID или зарплаты в нестандартной записи. Проверки и сообщения совпадают с RecordParser.
+public class MappedRecordReader implements RecordReader {
+    private static final DataValidLogger errorDataLogger = new DataValidLogger();
+    private static final int WINDOW_SIZE = 1 << 28;
+    private static final byte[] MANAGER = Role.MANAGER.getValue().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMPLOYEE = Role.EMPLOYEE.getValue().getBytes(StandardCharsets.US_ASCII);
+    private static final int FIELD_COUNT = 5;
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    private final DataError errorLog;
+    private final int windowSize;
+
+    public MappedRecordReader() {
+        this(new FileErrorLogger());
+    }
+
+    public MappedRecordReader(DataError errorLog) {
+        this(errorLog, WINDOW_SIZE);
+    }
+
+    MappedRecordReader(DataError errorLog, int windowSize) {
+        this.errorLog = errorLog;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public long read(Path file, RecordHandler handler) throws IOException {
+        if (FileReader.isCompressed(file)) {
+            try (InputStream in = FileReader.openInput(file)) {
+                return read(in, handler);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, 0, channel.size(), handler);
+        }
+    }
+
+    // Разбор диапазона [start, end); start должен указывать на начало строки
+    public long read(FileChannel channel, long start, long end, RecordHandler handler) throws IOException {
+        int[] bounds = new int[FIELD_COUNT * 2];
+        long lineCount = 0;
+        long position = start;
+        int window = windowSize;
+        while (position < end) {
+            int length = (int) Math.min(window, end - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean lastWindow = position + length == end;
+
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    parseLine(buffer, lineStart, i, bounds, handler);
+                    lineCount++;
+                    lineStart = i + 1;
+                }
+            }
+
+            if (lastWindow) {
+                if (lineStart < length) {
+                    parseLine(buffer, lineStart, length, bounds, handler);
+                    lineCount++;
+                }
+                break;
+            }
+            if (lineStart == 0) {
+                // Строка не поместилась в окно целиком
+                if (window == Integer.MAX_VALUE) {
+                    throw new IOException("Line exceeds " + Integer.MAX_VALUE + " bytes at offset " + position);
+                }
+                window = (int) Math.min(2L * window, Integer.MAX_VALUE);
+                continue;
+            }
+            position += lineStart;
+            window = windowSize;
+        }
+        return lineCount;
+    }
+
+    // Сжатый файл нельзя отобразить в память: распакованные байты разбираются тем же парсером через буфер в куче
+    long read(InputStream in, RecordHandler handler) throws IOException {
+        int[] bounds = new int[FIELD_COUNT * 2];
+        byte[] data = new byte[Math.min(windowSize, STREAM_BUFFER_SIZE)];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int filled = 0;
+        long lineCount = 0;
+        while (true) {
+            if (filled == data.length) {
+                // Строка не поместилась в буфер целиком
+                data = Arrays.copyOf(data, data.length * 2);
+                buffer = ByteBuffer.wrap(data);
+            }
+            int read = in.read(data, filled, data.length - filled);
+            if (read == -1) {
+                break;
+            }
+            int scanFrom = filled;
+            filled += read;
+
+            int lineStart = 0;
+            for (int i = scanFrom; i < filled; i++) {
+                if (data[i] == '\n') {
+                    parseLine(buffer, lineStart, i, bounds, handler);
+                    lineCount++;
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart > 0) {
+                System.arraycopy(data, lineStart, data, 0, filled - lineStart);
+                filled -= lineStart;
+            }
+        }
+        if (filled > 0) {
+            parseLine(buffer, 0, filled, bounds, handler);
+            lineCount++;
+        }
+        return lineCount;
+    }
+
+    private void parseLine(ByteBuffer buffer, int from, int to, int[] bounds, RecordHandler handler) throws IOException {
+        int lineEnd = to > from && buffer.get(to - 1) == '\r' ? to - 1 : to;
+        int start = skipLeading(buffer, from, lineEnd);
+        int end = skipTrailing(buffer, start, lineEnd);
+        if (start == end) {
+            errorDataLogger.logDataValidation("Skipping empty or null line");
+            errorLog.logError(decode(buffer, from, lineEnd), "Invalid field count or null fields");
+            return;
+        }
+
+        if (!splitFields(buffer, start, end, bounds)) {
+            errorLog.logError(decode(buffer, from, lineEnd), "Invalid field count or null fields");
+            return;
+        }
+
+        Role role = matchRole(buffer, bounds[0], bounds[1]);
+        if (role == null) {
+            errorLog.logError(decode(buffer, from, lineEnd), "Unknown role: " + decode(buffer, bounds[0], bounds[1]));
+            return;
+        }
+
+        if (bounds[2] == bounds[3]) {
+            errorLog.logError(decode(buffer, from, lineEnd), "Empty ID field");
+            return;
+        }
+        long id = EmployeeId.of(buffer, bounds[2], bounds[3]);
+
+        if (bounds[4] == bounds[5]) {
+            errorLog.logError(decode(buffer, from, lineEnd), "Empty name field");
+            return;
+        }
+
+        if (bounds[6] == bounds[7]) {
+            errorLog.logError(decode(buffer, from, lineEnd), "Empty salary field");
+            return;
+        }
+        long salary;
+        try {
+            salary = Salary.parse(buffer, bounds[6], bounds[7]);
+        } catch (NumberFormatException e) {
+            errorLog.logError(decode(buffer, from, lineEnd), "Invalid salary format: " + decode(buffer, bounds[6], bounds[7]));
+            return;
+        }
+        if (salary <= 0) {
+            errorLog.logError(decode(buffer, from, lineEnd), "Non-positive salary: " + decode(buffer, bounds[6], bounds[7]));
+            return;
+        }
+
+        String salaryText = Salary.isCanonical(buffer, bounds[6], bounds[7], salary) ? null : decode(buffer, bounds[6], bounds[7]);
+        String name = decode(buffer, bounds[4], bounds[5]);
+        if (role == Role.MANAGER) {
+            if (bounds[8] == bounds[9]) {
+                errorLog.logError(decode(buffer, from, lineEnd), "Empty department field for manager");
+                return;
+            }
+            EmployeeRecord manager = EmployeeRecord.manager(id, name, salary, salaryText, decode(buffer, bounds[8], bounds[9]));
+            handler.onRecord(manager, decode(buffer, from, lineEnd));
+            return;
+        }
+
+        handler.onRecord(EmployeeRecord.employee(id, name, salary, salaryText, EmployeeId.of(buffer, bounds[8], bounds[9])), null);
+    }
+
+    // Границы полей с обрезанными пробелами; как и String.split, пустые поля в конце строки отбрасываются
+    private boolean splitFields(ByteBuffer buffer, int start, int end, int[] bounds) {
+        while (end > start && buffer.get(end - 1) == ',') {
+            end--;
+        }
+
+        int field = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                if (field == FIELD_COUNT) {
+                    return false;
+                }
+                int s = skipLeading(buffer, fieldStart, i);
+                bounds[field * 2] = s;
+                bounds[field * 2 + 1] = skipTrailing(buffer, s, i);
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        return field == FIELD_COUNT;
+    }
+
+    private Role matchRole(ByteBuffer buffer, int from, int to) {
+        if (matches(buffer, from, to, MANAGER)) {
+            return Role.MANAGER;
+        }
+        if (matches(buffer, from, to, EMPLOYEE)) {
+            return Role.EMPLOYEE;
+        }
+        return null;
+    }
+
+    private boolean matches(ByteBuffer buffer, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipLeading(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipTrailing(ByteBuffer buffer, int from, int to) {
+        while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
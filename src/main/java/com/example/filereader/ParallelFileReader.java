@@ -0,0 +1,111 @@
+package com.example.filereader;
+
+import com.example.logging.DataError;
+import com.example.logging.DataValidLogger;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Параллельный разбор файлов: каждый файл читается в своём потоке в ParsedChunk,
+// а результаты сливаются в вызывающем потоке строго в порядке файлов в директории.
+public class ParallelFileReader {
+    private static final DataValidLogger errorDataLogger = new DataValidLogger();
+
+    private ParallelFileReader() {
+    }
+
+    // Файлы больше chunkSize дополнительно делятся на диапазоны и разбираются fork/join-задачами байтовым парсером
+    public static long readSbFiles(Path directoryPath, int threads, long chunkSize, Function<DataError, RecordReader> readerFactory, RecordHandler handler, DataError errorLog) throws IOException {
+        List<Path> files = FileReader.listSbFiles(directoryPath);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ForkJoinPool chunkPool = new ForkJoinPool(threads);
+        try {
+            // Ограничиваем число разобранных, но ещё не слитых файлов, чтобы не держать в памяти всё сразу
+            int maxInFlight = threads * 2;
+            Deque<PendingFile> inFlight = new ArrayDeque<>();
+            Iterator<Path> iterator = files.iterator();
+            long lineCount = 0;
+            while (iterator.hasNext() || !inFlight.isEmpty()) {
+                while (iterator.hasNext() && inFlight.size() < maxInFlight) {
+                    Path file = iterator.next();
+                    inFlight.add(new PendingFile(file, executor.submit(() -> parseFile(file, chunkSize, chunkPool, readerFactory))));
+                }
+                PendingFile next = inFlight.poll();
+                ParsedChunk chunk = await(next);
+                if (chunk != null) {
+                    chunk.replay(handler, errorLog);
+                    lineCount += chunk.getLineCount();
+                    if (chunk.getFailure() != null) {
+                        logReadFailure(next.file, chunk.getFailure());
+                    }
+                }
+            }
+            return lineCount;
+        } finally {
+            executor.shutdownNow();
+            chunkPool.shutdownNow();
+        }
+    }
+
+    private static ParsedChunk parseFile(Path file, long chunkSize, ForkJoinPool chunkPool, Function<DataError, RecordReader> readerFactory) throws IOException {
+        // Сжатый поток нельзя разрезать по смещениям: такие файлы распаковываются целиком, но параллельно друг с другом
+        if (!FileReader.isCompressed(file) && Files.size(file) > chunkSize) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return chunkPool.invoke(new ChunkParseTask(channel, FileSplitter.split(channel, chunkSize)));
+            }
+        }
+
+        ParsedChunk chunk = new ParsedChunk();
+        try {
+            chunk.setLineCount(readerFactory.apply(chunk).read(file, chunk));
+        } catch (IOException e) {
+            chunk.fail(e);
+        }
+        return chunk;
+    }
+
+    // Сюда доходят только ошибки до начала разбора (файл не открылся): такой файл пропускается.
+    // Ошибка посреди файла остаётся в ParsedChunk, и записи до неё сливаются, как и при последовательном чтении
+    private static ParsedChunk await(PendingFile pending) throws IOException {
+        try {
+            return pending.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                logReadFailure(pending.file, (IOException) cause);
+                return null;
+            }
+            throw new IOException("Failed to parse file " + pending.file + ": " + cause, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + pending.file, e);
+        }
+    }
+
+    private static void logReadFailure(Path file, IOException e) {
+        errorDataLogger.logDataValidation("Failed to read file: " + file.toString() + ": " + e.getMessage() + ". Proceeding with partial execution.");
+    }
+
+    private static class PendingFile {
+        private final Path file;
+        private final Future<ParsedChunk> future;
+
+        private PendingFile(Path file, Future<ParsedChunk> future) {
+            this.file = file;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.filereader;
+
+import com.example.logging.DataError;
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Результат разбора файла (или его части) в отдельном потоке: записи и отклонённые строки в исходном порядке.
+// Ошибки не пишутся в лог сразу, а воспроизводятся при слиянии, чтобы порядок лога не зависел от потоков.
+public class ParsedChunk implements RecordHandler, DataError {
+    private final List<EmployeeRecord> records = new ArrayList<>();
+    private final List<String> managerLines = new ArrayList<>();
+    private final List<Reject> rejects = new ArrayList<>();
+    private long lineCount;
+    private IOException failure;
+
+    @Override
+    public void onRecord(EmployeeRecord record, String line) {
+        records.add(record);
+        if (record.isManager()) {
+            managerLines.add(line);
+        }
+    }
+
+    @Override
+    public void logError(String line, String reason) {
+        rejects.add(new Reject(records.size(), line, reason));
+    }
+
+    public void setLineCount(long lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    // Чтение оборвалось ошибкой: записи до неё остаются, как и при потоковом последовательном чтении
+    public void fail(IOException failure) {
+        this.failure = failure;
+    }
+
+    public IOException getFailure() {
+        return failure;
+    }
+
+    public List<EmployeeRecord> getRecords() {
+        return Collections.unmodifiableList(records);
+    }
+
+    // Части после оборванной уже не добавляются: файл читается до первой ошибки
+    public void append(ParsedChunk other) {
+        if (failure != null) {
+            return;
+        }
+        int offset = records.size();
+        for (Reject reject : other.rejects) {
+            rejects.add(new Reject(offset + reject.position, reject.line, reject.reason));
+        }
+        records.addAll(other.records);
+        managerLines.addAll(other.managerLines);
+        lineCount += other.lineCount;
+        failure = other.failure;
+    }
+
+    public void replay(RecordHandler handler, DataError errorLog) throws IOException {
+        int rejectIndex = 0;
+        int managerIndex = 0;
+        for (int i = 0; i <= records.size(); i++) {
+            while (rejectIndex < rejects.size() && rejects.get(rejectIndex).position == i) {
+                Reject reject = rejects.get(rejectIndex++);
+                errorLog.logError(reject.line, reject.reason);
+            }
+            if (i < records.size()) {
+                EmployeeRecord record = records.get(i);
+                handler.onRecord(record, record.isManager() ? managerLines.get(managerIndex++) : null);
+            }
+        }
+    }
+
+    private static class Reject {
+        private final int position;
+        private final String line;
+        private final String reason;
+
+        private Reject(int position, String line, String reason) {
+            this.position = position;
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+
+    // Двоичная форма для кэша инкрементального режима
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(lineCount);
+        out.writeInt(records.size());
+        int managerIndex = 0;
+        for (EmployeeRecord record : records) {
+            out.writeBoolean(record.isManager());
+            EmployeeId.write(out, record.id());
+            writeString(out, record.name());
+            out.writeLong(record.salary());
+            writeString(out, record.rawSalaryText());
+            if (record.isManager()) {
+                writeString(out, record.department());
+                writeString(out, managerLines.get(managerIndex++));
+            } else {
+                EmployeeId.write(out, record.managerId());
+            }
+        }
+        out.writeInt(rejects.size());
+        for (Reject reject : rejects) {
+            out.writeInt(reject.position);
+            writeString(out, reject.line);
+            writeString(out, reject.reason);
+        }
+    }
+
+    public static ParsedChunk readFrom(DataInputStream in) throws IOException {
+        ParsedChunk chunk = new ParsedChunk();
+        chunk.lineCount = in.readLong();
+        int recordCount = in.readInt();
+        for (int i = 0; i < recordCount; i++) {
+            boolean manager = in.readBoolean();
+            long id = EmployeeId.read(in);
+            String name = readString(in);
+            long salary = in.readLong();
+            String salaryText = readString(in);
+            if (manager) {
+                String department = readString(in);
+                chunk.onRecord(EmployeeRecord.manager(id, name, salary, salaryText, department), readString(in));
+            } else {
+                chunk.onRecord(EmployeeRecord.employee(id, name, salary, salaryText, EmployeeId.read(in)), null);
+            }
+        }
+        int rejectCount = in.readInt();
+        for (int i = 0; i < rejectCount; i++) {
+            chunk.rejects.add(new Reject(in.readInt(), readString(in), readString(in)));
+        }
+        return chunk;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.filereader;
+
+import com.example.model.EmployeeRecord;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface RecordHandler {
+    // line - исходная строка; гарантированно передаётся только для менеджеров, для сотрудников может быть null
+    void onRecord(EmployeeRecord record, String line) throws IOException;
+}
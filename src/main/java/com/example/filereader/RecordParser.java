@@ -0,0 +1,79 @@
+package com.example.filereader;
+
+import com.example.enums.Role;
+import com.example.logging.DataError;
+import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+import com.example.model.Salary;
+
+import java.io.IOException;
+
+// Разбор и проверка строки .sb: каждая строка разбирается один раз, ошибки уходят в errorLog
+public class RecordParser {
+    private final DataError errorLog;
+
+    public RecordParser() {
+        this(new FileErrorLogger());
+    }
+
+    public RecordParser(DataError errorLog) {
+        this.errorLog = errorLog;
+    }
+
+    public EmployeeRecord parse(String line) throws IOException {
+        String[] fields = FileReader.parseLine(line);
+        if (fields == null || fields.length != 5) {
+            errorLog.logError(line, "Invalid field count or null fields");
+            return null;
+        }
+
+        Role role = Role.fromValue(fields[0]);
+        if (role == null) {
+            errorLog.logError(line, "Unknown role: " + fields[0]);
+            return null;
+        }
+
+        String idStr = fields[1];
+        String name = fields[2];
+        String salaryStr = fields[3];
+        String departmentOrManagerId = fields[4];
+
+        if (idStr.isEmpty()) {
+            errorLog.logError(line, "Empty ID field");
+            return null;
+        }
+        long id = EmployeeId.of(idStr);
+
+        if (name.isEmpty()) {
+            errorLog.logError(line, "Empty name field");
+            return null;
+        }
+
+        if (salaryStr.isEmpty()) {
+            errorLog.logError(line, "Empty salary field");
+            return null;
+        }
+        long salary;
+        try {
+            salary = Salary.parse(salaryStr);
+        } catch (NumberFormatException e) {
+            errorLog.logError(line, "Invalid salary format: " + salaryStr);
+            return null;
+        }
+        if (salary <= 0) {
+            errorLog.logError(line, "Non-positive salary: " + salaryStr);
+            return null;
+        }
+        String salaryText = Salary.isCanonical(salaryStr, salary) ? null : salaryStr;
+
+        if (role == Role.MANAGER) {
+            if (departmentOrManagerId.isEmpty()) {
+                errorLog.logError(line, "Empty department field for manager");
+                return null;
+            }
+            return EmployeeRecord.manager(id, name, salary, salaryText, departmentOrManagerId);
+        }
+        return EmployeeRecord.employee(id, name, salary, salaryText, EmployeeId.of(departmentOrManagerId));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.filereader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface RecordReader {
+    // Возвращает количество прочитанных строк
+    long read(Path file, RecordHandler handler) throws IOException;
+}
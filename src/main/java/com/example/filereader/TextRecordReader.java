@@ -0,0 +1,35 @@
+package com.example.filereader;
+
+import com.example.model.EmployeeRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class TextRecordReader implements RecordReader {
+    private final RecordParser parser;
+
+    public TextRecordReader() {
+        this(new RecordParser());
+    }
+
+    public TextRecordReader(RecordParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public long read(Path file, RecordHandler handler) throws IOException {
+        long lineCount = 0;
+        try (BufferedReader reader = FileReader.openReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineCount++;
+                EmployeeRecord record = parser.parse(line);
+                if (record != null) {
+                    handler.onRecord(record, line);
+                }
+            }
+        }
+        return lineCount;
+    }
+}
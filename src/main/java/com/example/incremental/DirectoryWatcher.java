@@ -0,0 +1,90 @@
+package com.example.incremental;
+
+import com.example.filereader.FileReader;
+import com.example.logging.CriticalErrorLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Наблюдение за входной директорией: события по .sb и .sb.gz файлам копятся, пока директория не затихнет
+// на время debounce, после чего вся пачка передаётся обработчику одним вызовом
+public class DirectoryWatcher implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryWatcher.class);
+    private static final CriticalErrorLogger criticalLogger = new CriticalErrorLogger();
+
+    private final Path directory;
+    private final long debounceMillis;
+    private final WatchService watchService;
+
+    public interface BatchHandler {
+        void onBatch(Set<Path> changedFiles) throws IOException;
+    }
+
+    public DirectoryWatcher(Path directory, long debounceMillis) throws IOException {
+        this.directory = directory;
+        this.debounceMillis = debounceMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    // Блокирует поток до close(), прерывания или потери доступа к директории
+    public void watch(BatchHandler handler) throws IOException {
+        try {
+            while (true) {
+                Set<Path> batch = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+                boolean valid = collect(key, batch);
+                while (valid && (key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    valid = collect(key, batch);
+                }
+                if (!valid) {
+                    // Директорию удалили или она стала недоступна: ключ больше не получит событий, и take() ждал бы вечно
+                    criticalLogger.logCriticalError("Critical error: Watched directory is no longer accessible: " + directory.toAbsolutePath() + ". Watching stopped.");
+                    return;
+                }
+                if (!batch.isEmpty()) {
+                    handler.onBatch(batch);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.info("Stopped watching {}", directory);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean collect(WatchKey key, Set<Path> batch) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // События потеряны: пусть обработчик перепроверит всю директорию
+                batch.add(directory);
+                continue;
+            }
+            Path file = directory.resolve((Path) event.context());
+            if (FileReader.isInputFile(file)) {
+                batch.add(file);
+            }
+        }
+        return key.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.incremental;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32C;
+
+// Отпечаток входного файла: размер, время изменения и контрольная сумма содержимого
+public final class FileFingerprint {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final long size;
+    private final long modifiedMillis;
+    private final long hash;
+
+    FileFingerprint(long size, long modifiedMillis, long hash) {
+        this.size = size;
+        this.modifiedMillis = modifiedMillis;
+        this.hash = hash;
+    }
+
+    // Если размер и время изменения совпадают с прошлым запуском, файл не перечитывается
+    public static FileFingerprint of(Path file, FileFingerprint previous) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modifiedMillis = attributes.lastModifiedTime().toMillis();
+        if (previous != null && previous.size == size && previous.modifiedMillis == modifiedMillis) {
+            return previous;
+        }
+        return new FileFingerprint(size, modifiedMillis, hash(file));
+    }
+
+    // Время изменения не учитывается: touch без правки содержимого не требует пересчёта
+    public boolean sameContent(FileFingerprint other) {
+        return other != null && size == other.size && hash == other.hash;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(size);
+        out.writeLong(modifiedMillis);
+        out.writeLong(hash);
+    }
+
+    static FileFingerprint readFrom(DataInputStream in) throws IOException {
+        return new FileFingerprint(in.readLong(), in.readLong(), in.readLong());
+    }
+
+    private static long hash(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    @Override
+    public String toString() {
+        return "FileFingerprint{size=" + size + ", modifiedMillis=" + modifiedMillis + ", hash=" + Long.toHexString(hash) + '}';
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.incremental;
+
+import com.example.filereader.ParsedChunk;
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Состояние прошлого запуска: отпечатки входных файлов в порядке обхода,
+// какие менеджеры объявлены и на каких менеджеров ссылаются в каждом файле, строки статистики по отделам
+public class InputManifest {
+    private static final int MAGIC = 0x53424d46;
+    private static final int VERSION = 2;
+
+    private final String configSignature;
+    private final List<Entry> entries;
+    private final SortedMap<String, String> statisticLines;
+
+    public InputManifest(String configSignature, List<Entry> entries, SortedMap<String, String> statisticLines) {
+        this.configSignature = configSignature;
+        this.entries = entries;
+        this.statisticLines = statisticLines;
+    }
+
+    public static InputManifest empty() {
+        return new InputManifest("", new ArrayList<>(), new TreeMap<>());
+    }
+
+    public String getConfigSignature() {
+        return configSignature;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public SortedMap<String, String> getStatisticLines() {
+        return statisticLines;
+    }
+
+    public Entry findEntry(String fileName) {
+        for (Entry entry : entries) {
+            if (entry.fileName.equals(fileName)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // ID менеджера -> отдел; как и при полном разборе, выигрывает первое объявление в порядке обхода файлов
+    public Map<Long, String> managerIndex() {
+        Map<Long, String> index = new HashMap<>();
+        for (Entry entry : entries) {
+            for (Map.Entry<Long, String> manager : entry.managers.entrySet()) {
+                index.putIfAbsent(manager.getKey(), manager.getValue());
+            }
+        }
+        return index;
+    }
+
+    public static InputManifest load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported manifest format: " + file);
+            }
+            String configSignature = in.readUTF();
+            int entryCount = in.readInt();
+            List<Entry> entries = new ArrayList<>(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                entries.add(Entry.readFrom(in));
+            }
+            SortedMap<String, String> statisticLines = new TreeMap<>();
+            int statisticCount = in.readInt();
+            for (int i = 0; i < statisticCount; i++) {
+                statisticLines.put(in.readUTF(), in.readUTF());
+            }
+            return new InputManifest(configSignature, entries, statisticLines);
+        }
+    }
+
+    // Пишем во временный файл и переименовываем, чтобы прерванный запуск не оставил битый манифест
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(configSignature);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                entry.writeTo(out);
+            }
+            out.writeInt(statisticLines.size());
+            for (Map.Entry<String, String> line : statisticLines.entrySet()) {
+                out.writeUTF(line.getKey());
+                out.writeUTF(line.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static class Entry {
+        private final String fileName;
+        private final FileFingerprint fingerprint;
+        private final long lineCount;
+        private final Map<Long, String> managers;
+        private final Set<Long> referencedManagers;
+
+        public Entry(String fileName, FileFingerprint fingerprint, long lineCount, Map<Long, String> managers, Set<Long> referencedManagers) {
+            this.fileName = fileName;
+            this.fingerprint = fingerprint;
+            this.lineCount = lineCount;
+            this.managers = managers;
+            this.referencedManagers = referencedManagers;
+        }
+
+        public static Entry of(String fileName, FileFingerprint fingerprint, ParsedChunk chunk) {
+            Map<Long, String> managers = new LinkedHashMap<>();
+            Set<Long> referencedManagers = new LinkedHashSet<>();
+            for (EmployeeRecord record : chunk.getRecords()) {
+                if (record.isManager()) {
+                    managers.putIfAbsent(record.id(), record.department());
+                } else {
+                    referencedManagers.add(record.managerId());
+                }
+            }
+            return new Entry(fileName, fingerprint, chunk.getLineCount(), managers, referencedManagers);
+        }
+
+        // Содержимое не менялось, но время изменения могло сдвинуться
+        public Entry withFingerprint(FileFingerprint fingerprint) {
+            return new Entry(fileName, fingerprint, lineCount, managers, referencedManagers);
+        }
+
+        public String getFileName() { return fileName; }
+        public FileFingerprint getFingerprint() { return fingerprint; }
+        public long getLineCount() { return lineCount; }
+        public Map<Long, String> getManagers() { return Collections.unmodifiableMap(managers); }
+        public Set<Long> getReferencedManagers() { return Collections.unmodifiableSet(referencedManagers); }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeUTF(fileName);
+            fingerprint.writeTo(out);
+            out.writeLong(lineCount);
+            out.writeInt(managers.size());
+            for (Map.Entry<Long, String> manager : managers.entrySet()) {
+                EmployeeId.write(out, manager.getKey());
+                out.writeUTF(manager.getValue());
+            }
+            out.writeInt(referencedManagers.size());
+            for (Long managerId : referencedManagers) {
+                EmployeeId.write(out, managerId);
+            }
+        }
+
+        private static Entry readFrom(DataInputStream in) throws IOException {
+            String fileName = in.readUTF();
+            FileFingerprint fingerprint = FileFingerprint.readFrom(in);
+            long lineCount = in.readLong();
+            int managerCount = in.readInt();
+            Map<Long, String> managers = new LinkedHashMap<>();
+            for (int i = 0; i < managerCount; i++) {
+                managers.put(EmployeeId.read(in), in.readUTF().intern());
+            }
+            int referenceCount = in.readInt();
+            Set<Long> referencedManagers = new LinkedHashSet<>();
+            for (int i = 0; i < referenceCount; i++) {
+                referencedManagers.add(EmployeeId.read(in));
+            }
+            return new Entry(fileName, fingerprint, lineCount, managers, referencedManagers);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.incremental;
+
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Двоичный снимок разобранных и распределённых по отделам записей. Колонки: ID, зарплаты в копейках, ID менеджеров,
+// роли, коды отделов по словарю и смещения имён в общем UTF-8 блоке; в конце редкие исключения — тексты
+// нечисловых ID и зарплат в нестандартной записи. Снимок отображается в память и
+// используется повторно, пока отпечатки входных файлов и режим чтения совпадают; сортировка и вывод в ключ не входят.
+public class RecordSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(RecordSnapshot.class);
+    private static final int MAGIC = 0x53425253;
+    private static final int VERSION = 2;
+
+    private final Path file;
+
+    public RecordSnapshot(Path file) {
+        this.file = file;
+    }
+
+    // Отпечатки в порядке обхода; файлы с прежними размером и временем изменения повторно не хэшируются
+    public Map<String, FileFingerprint> fingerprint(List<Path> inputs) throws IOException {
+        Map<String, FileFingerprint> previous = readPreviousFingerprints();
+        Map<String, FileFingerprint> fingerprints = new LinkedHashMap<>();
+        for (Path input : inputs) {
+            String name = input.getFileName().toString();
+            fingerprints.put(name, FileFingerprint.of(input, previous.get(name)));
+        }
+        return fingerprints;
+    }
+
+    // null, если снимка нет, он повреждён или сделан по другим входным данным
+    public Map<String, List<EmployeeRecord>> load(String signature, Map<String, FileFingerprint> fingerprints) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Header header = readHeader(buffer);
+            if (!header.matches(signature, fingerprints)) {
+                return null;
+            }
+            return readColumns(buffer);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable snapshot {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    public void save(String signature, Map<String, FileFingerprint> fingerprints, Map<String, List<EmployeeRecord>> departmentData) throws IOException {
+        List<String> departments = new ArrayList<>(departmentData.keySet());
+        int count = 0;
+        for (List<EmployeeRecord> records : departmentData.values()) {
+            count += records.size();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, signature);
+            out.writeInt(fingerprints.size());
+            for (Map.Entry<String, FileFingerprint> entry : fingerprints.entrySet()) {
+                writeString(out, entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+
+            out.writeInt(departments.size());
+            for (String department : departments) {
+                writeString(out, department);
+            }
+            out.writeInt(count);
+            for (String department : departments) {
+                for (EmployeeRecord record : departmentData.get(department)) {
+                    out.writeLong(record.id());
+                }
+            }
+            for (String department : departments) {
+                for (EmployeeRecord record : departmentData.get(department)) {
+                    out.writeLong(record.salary());
+                }
+            }
+            for (String department : departments) {
+                for (EmployeeRecord record : departmentData.get(department)) {
+                    out.writeLong(record.managerId());
+                }
+            }
+            for (String department : departments) {
+                for (EmployeeRecord record : departmentData.get(department)) {
+                    out.writeByte(record.isManager() ? 1 : 0);
+                }
+            }
+            for (int code = 0; code < departments.size(); code++) {
+                for (int i = departmentData.get(departments.get(code)).size(); i > 0; i--) {
+                    out.writeInt(code);
+                }
+            }
+
+            List<byte[]> names = new ArrayList<>(count);
+            int offset = 0;
+            out.writeInt(0);
+            for (String department : departments) {
+                for (EmployeeRecord record : departmentData.get(department)) {
+                    byte[] name = record.name().getBytes(StandardCharsets.UTF_8);
+                    names.add(name);
+                    offset += name.length;
+                    out.writeInt(offset);
+                }
+            }
+            for (byte[] name : names) {
+                out.write(name);
+            }
+            writeExceptions(out, departments, departmentData);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Ключи нечисловых ID действительны только в пределах процесса: сохраняется их текст, при чтении ключи выдаются заново
+    private static void writeExceptions(DataOutputStream out, List<String> departments, Map<String, List<EmployeeRecord>> departmentData) throws IOException {
+        Map<Long, String> idTexts = new LinkedHashMap<>();
+        List<Integer> salaryIndexes = new ArrayList<>();
+        List<String> salaryTexts = new ArrayList<>();
+        int index = 0;
+        for (String department : departments) {
+            for (EmployeeRecord record : departmentData.get(department)) {
+                if (record.id() < 0) {
+                    idTexts.put(record.id(), EmployeeId.text(record.id()));
+                }
+                if (record.managerId() < 0) {
+                    idTexts.put(record.managerId(), EmployeeId.text(record.managerId()));
+                }
+                if (record.rawSalaryText() != null) {
+                    salaryIndexes.add(index);
+                    salaryTexts.add(record.rawSalaryText());
+                }
+                index++;
+            }
+        }
+        out.writeInt(idTexts.size());
+        for (Map.Entry<Long, String> entry : idTexts.entrySet()) {
+            out.writeLong(entry.getKey());
+            writeString(out, entry.getValue());
+        }
+        out.writeInt(salaryTexts.size());
+        for (int i = 0; i < salaryTexts.size(); i++) {
+            out.writeInt(salaryIndexes.get(i));
+            writeString(out, salaryTexts.get(i));
+        }
+    }
+
+    private Map<String, FileFingerprint> readPreviousFingerprints() {
+        if (!Files.exists(file)) {
+            return new HashMap<>();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())).fingerprints;
+        } catch (IOException | RuntimeException e) {
+            return new HashMap<>();
+        }
+    }
+
+    private Header readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Unsupported snapshot format");
+        }
+        String signature = readString(buffer);
+        int fileCount = buffer.getInt();
+        Map<String, FileFingerprint> fingerprints = new LinkedHashMap<>();
+        for (int i = 0; i < fileCount; i++) {
+            String name = readString(buffer);
+            fingerprints.put(name, new FileFingerprint(buffer.getLong(), buffer.getLong(), buffer.getLong()));
+        }
+        return new Header(signature, fingerprints);
+    }
+
+    private Map<String, List<EmployeeRecord>> readColumns(ByteBuffer buffer) {
+        String[] departments = new String[buffer.getInt()];
+        for (int i = 0; i < departments.length; i++) {
+            departments[i] = readString(buffer).intern();
+        }
+
+        int count = buffer.getInt();
+        long[] ids = new long[count];
+        long[] salaries = new long[count];
+        long[] managerIds = new long[count];
+        byte[] roles = new byte[count];
+        int[] departmentCodes = new int[count];
+        int[] nameOffsets = new int[count + 1];
+        buffer.asLongBuffer().get(ids);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        buffer.asLongBuffer().get(salaries);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        buffer.asLongBuffer().get(managerIds);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        buffer.get(roles);
+        buffer.asIntBuffer().get(departmentCodes);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        buffer.asIntBuffer().get(nameOffsets);
+        buffer.position(buffer.position() + (count + 1) * Integer.BYTES);
+        byte[] names = new byte[nameOffsets[count]];
+        buffer.get(names);
+
+        Map<Long, Long> idKeys = new HashMap<>();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            long savedKey = buffer.getLong();
+            idKeys.put(savedKey, EmployeeId.of(readString(buffer)));
+        }
+        String[] salaryTexts = new String[count];
+        for (int i = buffer.getInt(); i > 0; i--) {
+            int index = buffer.getInt();
+            salaryTexts[index] = readString(buffer);
+        }
+
+        Map<String, List<EmployeeRecord>> departmentData = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String department = departments[departmentCodes[i]];
+            String name = new String(names, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i], StandardCharsets.UTF_8);
+            long id = ids[i] < 0 ? idKeys.get(ids[i]) : ids[i];
+            long managerId = managerIds[i] < 0 ? idKeys.get(managerIds[i]) : managerIds[i];
+            EmployeeRecord record = roles[i] == 1
+                    ? EmployeeRecord.manager(id, name, salaries[i], salaryTexts[i], department)
+                    : EmployeeRecord.employee(id, name, salaries[i], salaryTexts[i], managerId);
+            departmentData.computeIfAbsent(department, k -> new ArrayList<>()).add(record);
+        }
+        return departmentData;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class Header {
+        private final String signature;
+        private final Map<String, FileFingerprint> fingerprints;
+
+        private Header(String signature, Map<String, FileFingerprint> fingerprints) {
+            this.signature = signature;
+            this.fingerprints = fingerprints;
+        }
+
+        // Порядок файлов тоже важен: от него зависит, какое из повторных объявлений менеджера выигрывает
+        private boolean matches(String expectedSignature, Map<String, FileFingerprint> current) {
+            if (!signature.equals(expectedSignature) || !new ArrayList<>(fingerprints.keySet()).equals(new ArrayList<>(current.keySet()))) {
+                return false;
+            }
+            for (Map.Entry<String, FileFingerprint> entry : current.entrySet()) {
+                if (!entry.getValue().sameContent(fingerprints.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.incremental;
+
+import com.example.model.EmployeeId;
+import com.example.statistic.SalaryStatistic;
+import com.example.statistic.StatisticRollup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Частичные агрегаты статистики по входным файлам в порядке обхода: менеджеры, объявленные в файле,
+// и статистика зарплат его сотрудников по ID менеджера. Отдел сотрудника может задаваться менеджером из другого файла,
+// поэтому агрегаты хранятся по менеджерам и сводятся в отделы только при слиянии
+public class StatisticPartials {
+    private static final int MAGIC = 0x53425354;
+    private static final int VERSION = 2;
+
+    private final String configSignature;
+    private final List<Entry> entries;
+
+    public StatisticPartials(String configSignature, List<Entry> entries) {
+        this.configSignature = configSignature;
+        this.entries = entries;
+    }
+
+    public static StatisticPartials empty() {
+        return new StatisticPartials("", new ArrayList<>());
+    }
+
+    public String getConfigSignature() {
+        return configSignature;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    // Как и при полном разборе, выигрывает первое объявление менеджера в порядке обхода файлов;
+    // сотрудники без найденного менеджера в статистику не попадают
+    public StatisticRollup rollup(Supplier<SalaryStatistic> newStatistic) {
+        Map<Long, String> managerDepartments = new HashMap<>();
+        for (Entry entry : entries) {
+            for (Map.Entry<Long, String> manager : entry.managers.entrySet()) {
+                managerDepartments.putIfAbsent(manager.getKey(), manager.getValue());
+            }
+        }
+        Map<Long, SalaryStatistic> managerStatistics = new HashMap<>();
+        for (Entry entry : entries) {
+            for (Map.Entry<Long, SalaryStatistic> salaries : entry.salariesByManager.entrySet()) {
+                if (managerDepartments.containsKey(salaries.getKey())) {
+                    managerStatistics.computeIfAbsent(salaries.getKey(), k -> newStatistic.get()).merge(salaries.getValue());
+                }
+            }
+        }
+        return new StatisticRollup(managerDepartments, managerStatistics, newStatistic);
+    }
+
+    public static StatisticPartials load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported statistic partials format: " + file);
+            }
+            String configSignature = in.readUTF();
+            int entryCount = in.readInt();
+            List<Entry> entries = new ArrayList<>(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                entries.add(Entry.readFrom(in));
+            }
+            return new StatisticPartials(configSignature, entries);
+        }
+    }
+
+    // Пишем во временный файл и переименовываем, чтобы прерванный запуск не оставил битые агрегаты.
+    // Агрегаты без отпечатка (файл дочитан не до конца) не сохраняются, и следующий запуск прочитает файл заново
+    public void save(Path file) throws IOException {
+        List<Entry> complete = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.fingerprint != null) {
+                complete.add(entry);
+            }
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(configSignature);
+            out.writeInt(complete.size());
+            for (Entry entry : complete) {
+                entry.writeTo(out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static class Entry {
+        private final String fileName;
+        private final FileFingerprint fingerprint;
+        private final long lineCount;
+        private final Map<Long, String> managers;
+        private final Map<Long, SalaryStatistic> salariesByManager;
+
+        public Entry(String fileName, FileFingerprint fingerprint, long lineCount, Map<Long, String> managers, Map<Long, SalaryStatistic> salariesByManager) {
+            this.fileName = fileName;
+            this.fingerprint = fingerprint;
+            this.lineCount = lineCount;
+            this.managers = managers;
+            this.salariesByManager = salariesByManager;
+        }
+
+        // Содержимое не менялось, но время изменения могло сдвинуться
+        public Entry withFingerprint(FileFingerprint fingerprint) {
+            return new Entry(fileName, fingerprint, lineCount, managers, salariesByManager);
+        }
+
+        public String getFileName() { return fileName; }
+        public FileFingerprint getFingerprint() { return fingerprint; }
+        public long getLineCount() { return lineCount; }
+        public Map<Long, String> getManagers() { return Collections.unmodifiableMap(managers); }
+        public Map<Long, SalaryStatistic> getSalariesByManager() { return Collections.unmodifiableMap(salariesByManager); }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeUTF(fileName);
+            fingerprint.writeTo(out);
+            out.writeLong(lineCount);
+            out.writeInt(managers.size());
+            for (Map.Entry<Long, String> manager : managers.entrySet()) {
+                EmployeeId.write(out, manager.getKey());
+                out.writeUTF(manager.getValue());
+            }
+            out.writeInt(salariesByManager.size());
+            for (Map.Entry<Long, SalaryStatistic> salaries : salariesByManager.entrySet()) {
+                EmployeeId.write(out, salaries.getKey());
+                salaries.getValue().writeTo(out);
+            }
+        }
+
+        private static Entry readFrom(DataInputStream in) throws IOException {
+            String fileName = in.readUTF();
+            FileFingerprint fingerprint = FileFingerprint.readFrom(in);
+            long lineCount = in.readLong();
+            int managerCount = in.readInt();
+            Map<Long, String> managers = new LinkedHashMap<>();
+            for (int i = 0; i < managerCount; i++) {
+                managers.put(EmployeeId.read(in), in.readUTF().intern());
+            }
+            int salaryCount = in.readInt();
+            Map<Long, SalaryStatistic> salariesByManager = new HashMap<>();
+            for (int i = 0; i < salaryCount; i++) {
+                salariesByManager.put(EmployeeId.read(in), SalaryStatistic.readFrom(in));
+            }
+            return new Entry(fileName, fingerprint, lineCount, managers, salariesByManager);
+        }
+    }
+}
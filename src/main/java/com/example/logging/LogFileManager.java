@@ -47,7 +47,8 @@ public class LogFileManager {
         }
     }
 
-    public static void writeToLog(Path logPath, String entry) throws IOException {
+    // Логгеры вызываются и из рабочих потоков параллельного чтения, поэтому запись сериализуется
+    public static synchronized void writeToLog(Path logPath, String entry) throws IOException {
         Path parentDir = logPath.getParent();
         if (parentDir != null && !Files.exists(parentDir)) {
             Files.createDirectories(parentDir);
@@ -0,0 +1,99 @@
+package com.example.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ключ ID сотрудника или менеджера. Неотрицательное число в каноничной записи (без знака и ведущих нулей)
+// хранится как есть; любой другой текст ID ("001", "-5", "A-17") получает отрицательный ключ из общей таблицы.
+// Так ID сравниваются как строки, как и раньше, а исходный текст всегда восстанавливается для вывода
+public final class EmployeeId {
+    private static final Map<String, Long> KEYS = new ConcurrentHashMap<>();
+    private static final Map<Long, String> TEXTS = new ConcurrentHashMap<>();
+
+    // Числовые ID по значению, затем текстовые по тексту: порядок не зависит от того, в каком порядке встретились ID
+    public static final Comparator<Long> ORDER = (a, b) -> {
+        if (a >= 0 && b >= 0) {
+            return Long.compare(a, b);
+        }
+        if (a >= 0 || b >= 0) {
+            return a >= 0 ? -1 : 1;
+        }
+        return text(a).compareTo(text(b));
+    };
+
+    private EmployeeId() {
+    }
+
+    public static long of(String text) {
+        long value = parseCanonical(text);
+        return value >= 0 ? value : KEYS.computeIfAbsent(text, EmployeeId::register);
+    }
+
+    // Каноничное число разбирается прямо из байтов, остальной текст декодируется и ищется в таблице
+    public static long of(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length == 0 || length > 19 || (buffer.get(from) == '0' && length > 1)) {
+            return of(decode(buffer, from, to));
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return of(decode(buffer, from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    public static String text(long key) {
+        return key >= 0 ? Long.toString(key) : TEXTS.get(key);
+    }
+
+    // Ключи из таблицы живут только в пределах процесса, поэтому в кэши на диске текстовые ID пишутся текстом
+    public static void write(DataOutput out, long key) throws IOException {
+        out.writeLong(key);
+        if (key < 0) {
+            out.writeUTF(TEXTS.get(key));
+        }
+    }
+
+    public static long read(DataInput in) throws IOException {
+        long key = in.readLong();
+        return key >= 0 ? key : of(in.readUTF());
+    }
+
+    private static long parseCanonical(String text) {
+        int length = text.length();
+        if (length == 0 || length > 19 || (text.charAt(0) == '0' && length > 1)) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static synchronized Long register(String text) {
+        long key = -(TEXTS.size() + 1L);
+        TEXTS.put(key, text);
+        return key;
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.model;
+
+import com.example.enums.Role;
+
+public final class EmployeeRecord {
+    private final Role role;
+    private final long id;
+    private final String name;
+    private final long salary;
+    // Исходный текст зарплаты; null, если он совпадает с Salary.format(salary)
+    private final String salaryText;
+    private final String department;
+    private final long managerId;
+
+    private EmployeeRecord(Role role, long id, String name, long salary, String salaryText, String department, long managerId) {
+        this.role = role;
+        this.id = id;
+        this.name = name;
+        this.salary = salary;
+        this.salaryText = salaryText;
+        this.department = department;
+        this.managerId = managerId;
+    }
+
+    public static EmployeeRecord manager(long id, String name, long salary, String department) {
+        return manager(id, name, salary, null, department);
+    }
+
+    public static EmployeeRecord manager(long id, String name, long salary, String salaryText, String department) {
+        return new EmployeeRecord(Role.MANAGER, id, name, salary, salaryText, department.intern(), id);
+    }
+
+    public static EmployeeRecord employee(long id, String name, long salary, long managerId) {
+        return employee(id, name, salary, null, managerId);
+    }
+
+    public static EmployeeRecord employee(long id, String name, long salary, String salaryText, long managerId) {
+        return new EmployeeRecord(Role.EMPLOYEE, id, name, salary, salaryText, null, managerId);
+    }
+
+    public Role role() { return role; }
+    public long id() { return id; }
+    public String name() { return name; }
+    public long salary() { return salary; }
+    public String department() { return department; }
+    public long managerId() { return managerId; }
+
+    // Текст для хранения в кэшах: null, если достаточно числа
+    public String rawSalaryText() { return salaryText; }
+
+    public String salaryText() {
+        return salaryText != null ? salaryText : Salary.format(salary);
+    }
+
+    public boolean isManager() {
+        return role == Role.MANAGER;
+    }
+
+    // Поля в исходной записи: ID и зарплата выводятся так, как были во входном файле
+    public String toLine() {
+        return role.getValue() + "," + EmployeeId.text(id) + "," + name + "," + salaryText() + "," + (isManager() ? department : EmployeeId.text(managerId));
+    }
+
+    @Override
+    public String toString() {
+        return toLine();
+    }
+}
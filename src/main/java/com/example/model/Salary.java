@@ -0,0 +1,142 @@
+package com.example.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+// Зарплата хранится в копейках (фиксированная точка, два знака после запятой)
+public final class Salary {
+    public static final int SCALE = 100;
+
+    private Salary() {
+    }
+
+    // Разбор без Double.parseDouble по тем же правилам, что и для байтов: "1e3", "NaN", "0x10" и суффиксы d/f не принимаются
+    public static long parse(CharSequence value) {
+        return parse(value::charAt, 0, value.length(), () -> value.toString());
+    }
+
+    // Разбор прямо из байтов (ASCII); используется mmap-читателем без декодирования строки
+    public static long parse(ByteBuffer buffer, int from, int to) {
+        return parse(buffer::get, from, to, () -> decode(buffer, from, to));
+    }
+
+    // Единый разбор: [+-]цифры[.цифры], третий знак после запятой округляет по модулю вверх от 5
+    private static long parse(Source source, int from, int to, Supplier<String> text) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (source.at(i) == '-' || source.at(i) == '+')) {
+            negative = source.at(i) == '-';
+            i++;
+        }
+
+        try {
+            long units = 0;
+            int unitDigits = 0;
+            while (i < to && isDigit(source.at(i))) {
+                units = Math.addExact(Math.multiplyExact(units, 10), source.at(i) - '0');
+                unitDigits++;
+                i++;
+            }
+
+            long fraction = 0;
+            int fractionDigits = 0;
+            boolean roundUp = false;
+            if (i < to && source.at(i) == '.') {
+                i++;
+                while (i < to && isDigit(source.at(i))) {
+                    if (fractionDigits < 2) {
+                        fraction = fraction * 10 + (source.at(i) - '0');
+                    } else if (fractionDigits == 2) {
+                        roundUp = source.at(i) >= '5';
+                    }
+                    fractionDigits++;
+                    i++;
+                }
+            }
+
+            if (i != to || (unitDigits == 0 && fractionDigits == 0)) {
+                throw new NumberFormatException("Invalid salary: " + text.get());
+            }
+            for (int d = Math.min(fractionDigits, 2); d < 2; d++) {
+                fraction *= 10;
+            }
+
+            long value = Math.addExact(Math.multiplyExact(units, SCALE), fraction + (roundUp ? 1 : 0));
+            return negative ? -value : value;
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Salary out of range: " + text.get());
+        }
+    }
+
+    // Совпадает ли исходный текст с тем, что выведет format(value): тогда сам текст можно не хранить
+    public static boolean isCanonical(CharSequence value, long minorUnits) {
+        return isCanonical(value::charAt, 0, value.length(), minorUnits);
+    }
+
+    public static boolean isCanonical(ByteBuffer buffer, int from, int to, long minorUnits) {
+        return isCanonical(buffer::get, from, to, minorUnits);
+    }
+
+    // Сравнение с конца без построения строки; зарплаты в записях только положительные
+    private static boolean isCanonical(Source source, int from, int to, long minorUnits) {
+        if (minorUnits <= 0) {
+            return false;
+        }
+        int i = to;
+        long fraction = minorUnits % SCALE;
+        if (fraction != 0) {
+            if (i - from < 3 || source.at(i - 1) != '0' + fraction % 10 || source.at(i - 2) != '0' + fraction / 10 || source.at(i - 3) != '.') {
+                return false;
+            }
+            i -= 3;
+        }
+        long units = minorUnits / SCALE;
+        do {
+            if (i == from || source.at(--i) != '0' + units % 10) {
+                return false;
+            }
+            units /= 10;
+        } while (units != 0);
+        return i == from;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private interface Source {
+        int at(int index);
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Среднее с округлением вверх до копейки, как и прежний Math.ceil(x * 100) / 100, но без плавающей точки
+    public static long ceilMean(long sum, long count) {
+        return -Math.floorDiv(-sum, count);
+    }
+
+    // Ровно два знака после запятой: 3000.10, -0.05
+    public static StringBuilder appendFixed(StringBuilder target, long minorUnits) {
+        if (minorUnits < 0) {
+            target.append('-');
+        }
+        long absolute = Math.abs(minorUnits);
+        long fraction = absolute % SCALE;
+        return target.append(absolute / SCALE).append(fraction < 10 ? ".0" : ".").append(fraction);
+    }
+
+    public static String format(long minorUnits) {
+        long units = minorUnits / SCALE;
+        long fraction = Math.abs(minorUnits % SCALE);
+        if (fraction == 0) {
+            return Long.toString(units);
+        }
+        String sign = minorUnits < 0 && units == 0 ? "-" : "";
+        return sign + units + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -1,10 +1,11 @@
 package com.example.processor;
 
+import com.example.model.EmployeeRecord;
+
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
 public interface DataProcessor {
-    void processData( Map<String, String> managerDepartments, Map<String, List<String[]>> departmentData, List<String[]> pendingEmployees) throws IOException;
-}
\ No newline at end of file
+    void processData(Map<Long, String> managerDepartments, Map<String, List<EmployeeRecord>> departmentData, List<EmployeeRecord> pendingEmployees) throws IOException;
+}
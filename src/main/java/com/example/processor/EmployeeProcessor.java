@@ -4,28 +4,61 @@ import com.example.WritingDepartmentFiles.DepartmentFilesWriter;
 import com.example.config.ApplicationConfig;
 import com.example.enums.AppConstants;
 import com.example.logging.CriticalErrorLogger;
-import com.example.logging.DataValidError;
+import com.example.logging.DataError;
 import com.example.logging.DataValidLogger;
 import com.example.logging.FileErrorLogger;
 import com.example.sorting.EmployeeDataSorter;
 import com.example.statistic.DepartmentStatisticCreator;
 import com.example.filereader.FileReader;
+import com.example.filereader.MappedRecordReader;
+import com.example.filereader.ParallelFileReader;
+import com.example.filereader.RecordHandler;
+import com.example.filereader.RecordParser;
+import com.example.filereader.RecordReader;
+import com.example.filereader.TextRecordReader;
+import com.example.incremental.DirectoryWatcher;
+import com.example.incremental.FileFingerprint;
+import com.example.incremental.RecordSnapshot;
+import com.example.model.EmployeeRecord;
 import com.example.directoriesManager.DirectoryManager;
+import com.example.spill.DepartmentSpill;
+import com.example.statistic.SalaryStatistic;
+import com.example.statistic.StatisticRollup;
 
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 public class EmployeeProcessor implements DataProcessor {
     private static final Path OUTPUT = DirectoryManager.getOUTPUT_DIR().toAbsolutePath();
-    private final EmployeeDataSorter sorter = new EmployeeDataSorter();
+    private EmployeeDataSorter sorter = new EmployeeDataSorter();
     private final DepartmentFilesWriter writer = new DepartmentFilesWriter();
-    private final DepartmentStatisticCreator statisticCreator = new DepartmentStatisticCreator();
+    private DepartmentStatisticCreator statisticCreator = new DepartmentStatisticCreator();
+    private String readerMode = AppConstants.READER_TEXT.getValue();
+    private int threads = 1;
+    private long chunkSize = 64L * 1024 * 1024;
+    private int top;
     private static final FileErrorLogger errorLogger = new FileErrorLogger();
     private static final CriticalErrorLogger criticalLogger = new CriticalErrorLogger();
     private static final DataValidLogger errorDataLogger = new DataValidLogger();
+    private static final String SNAPSHOT_FILE = "records.snapshot";
+    private IncrementalProcessor incrementalProcessor;
+    private DepartmentSpill spill;
+    // Статистика отделов, собираемая при маршрутизации; null, если --stat не задан, задан --rollup или данные взяты из снимка
+    private Map<String, SalaryStatistic> departmentStatistics;
+    // С --rollup вместо статистики отделов копится статистика менеджеров, отделы и итог сводятся из неё
+    private boolean rollup;
+    private Map<Long, SalaryStatistic> managerStatistics;
+    private StatisticRollup statisticRollup;
 
     public void processFiles(String[] args) throws IOException {
         ApplicationConfig config = ApplicationConfig.fromArgs(args);
@@ -36,19 +69,58 @@ public class EmployeeProcessor implements DataProcessor {
         boolean stat = config.isStat();
         String output = config.getOutput();
         String outputPath = config.getOutputPath();
+        readerMode = config.getReaderMode();
+        threads = config.getThreads();
+        chunkSize = config.getChunkSizeMb() * 1024L * 1024;
+        top = config.getTop();
+        rollup = config.isRollup();
+        statisticCreator = new DepartmentStatisticCreator(config.isQuantiles() ? config.getQuantileErrorPercent() / 100 : 0, config.getFormat());
+        sorter = new EmployeeDataSorter(config.getParallelSortThreshold(),
+                config.getCollation() == null ? null : Locale.forLanguageTag(config.getCollation()));
+
+        if (config.isStatOnly()) {
+            processStatisticsOnly(config);
+            return;
+        }
+        if (rollup && config.isIncremental()) {
+            errorDataLogger.logDataValidation("Ignoring --rollup in incremental mode: statistics are cached per department. Printing department statistics only.");
+        }
+        if (config.isWatch()) {
+            watchDirectory(config);
+            return;
+        }
+        if (config.isIncremental()) {
+            processIncrementally(config);
+            return;
+        }
 
-        Map<String, List<String[]>> departmentData = new HashMap<>();
-        Map<String, String> managerDepartments = new HashMap<>();
-        List<String[]> pendingEmployees = new ArrayList<>();
+        Map<String, List<EmployeeRecord>> departmentData = new HashMap<>();
+        Map<Long, String> managerDepartments = new HashMap<>();
+        List<EmployeeRecord> pendingEmployees = new ArrayList<>();
 
         try {
-            processData(managerDepartments, departmentData, pendingEmployees);
+            IncrementalProcessor.invalidate(DirectoryManager.getCacheDir());
+            departmentStatistics = stat && !rollup ? new HashMap<>() : null;
+            managerStatistics = stat && rollup ? new HashMap<>() : null;
+            statisticRollup = null;
+            if (config.getMemoryBudgetMb() > 0) {
+                processExternally(config.getMemoryBudgetMb() * 1024L * 1024, sortBy, sortOrder, stat, output, outputPath);
+                return;
+            }
+            if (config.isSnapshot()) {
+                departmentData = loadOrParse(managerDepartments, pendingEmployees);
+            } else {
+                processData(managerDepartments, departmentData, pendingEmployees);
+            }
 
-            for (Map.Entry<String, List<String[]>> entry : departmentData.entrySet()) {
-                String department = entry.getKey();
-                List<String[]> data = entry.getValue();
-                sortData(data, sortBy, sortOrder);
-                writeDepartmentFile(department, data);
+            if (config.getDepartmentThreads() > 1) {
+                writeDepartmentsParallel(departmentData, sortBy, sortOrder, config.getDepartmentThreads(), config.getWriteConcurrency());
+            } else {
+                for (Map.Entry<String, List<EmployeeRecord>> entry : departmentData.entrySet()) {
+                    String department = entry.getKey();
+                    List<EmployeeRecord> data = entry.getValue();
+                    writeDepartmentFile(department, prepareDepartment(data, sortBy, sortOrder));
+                }
             }
 
             if (stat) {
@@ -60,146 +132,283 @@ public class EmployeeProcessor implements DataProcessor {
         }
     }
 
-    @Override
-    public void processData(Map<String, String> managerDepartments, Map<String, List<String[]>> departmentData, List<String[]> pendingEmployees) throws IOException {
-        Path currentDir = Paths.get(".").toAbsolutePath();
-        List<String> allLines = FileReader.readSbFiles(currentDir);
-        if (allLines == null || allLines.isEmpty()) {
-            errorLogger.logError("No data found in directory: " + currentDir.toAbsolutePath(), "Empty input data");
-            return;
+    // Каждый отдел сортируется и пишется отдельной задачей; сортировки идут параллельно,
+    // а одновременных записей на диск не больше writeConcurrency
+    private void writeDepartmentsParallel(Map<String, List<EmployeeRecord>> departmentData, String sortBy, String sortOrder, int departmentThreads, int writeConcurrency) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(departmentThreads);
+        Semaphore diskSlots = new Semaphore(writeConcurrency);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (Map.Entry<String, List<EmployeeRecord>> entry : departmentData.entrySet()) {
+                tasks.add(executor.submit(() -> {
+                    List<EmployeeRecord> rows = prepareDepartment(entry.getValue(), sortBy, sortOrder);
+                    diskSlots.acquire();
+                    try {
+                        writeDepartmentFile(entry.getKey(), rows);
+                    } finally {
+                        diskSlots.release();
+                    }
+                    return null;
+                }));
+            }
+            // Ждём все задачи, даже если какая-то упала, и сообщаем о первой ошибке
+            IOException failure = null;
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = new IOException("Failed to process department: " + e.getCause(), e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while writing departments", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        allLines.sort(Comparator.comparing(line -> {
-            String[] fields = FileReader.parseLine(line);
-            return fields != null && fields.length == 5 && AppConstants.MANAGER_ROLE.getValue().equals(fields[0].trim()) ? 0 : 1;
-        }));
+    // Режим с ограниченной памятью: при превышении бюджета отделы сбрасываются отсортированными частями на диск,
+    // затем каждый отдел сливается из частей прямо в файл; статистика к этому моменту уже собрана при маршрутизации
+    private void processExternally(long budgetBytes, String sortBy, String sortOrder, boolean stat, String output, String outputPath) throws IOException {
+        if (top > 0 && sortBy == null) {
+            sortBy = AppConstants.SORT_SALARY.getValue();
+            sortOrder = AppConstants.ORDER_DESC.getValue();
+        }
+        String runSortBy = sortBy;
+        String runSortOrder = sortOrder;
+        Map<String, List<EmployeeRecord>> departmentData = new HashMap<>();
+        Files.createDirectories(DirectoryManager.getCacheDir());
+        Path spillDir = Files.createTempDirectory(DirectoryManager.getCacheDir(), "spill-");
+        try (DepartmentSpill departmentSpill = new DepartmentSpill(spillDir, budgetBytes, departmentData,
+                records -> sortData(records, runSortBy, runSortOrder))) {
+            spill = departmentSpill;
+            try {
+                processData(new HashMap<>(), departmentData, new ArrayList<>());
+            } finally {
+                spill = null;
+            }
 
-        for (String line : allLines) {
-            String[] fields = parseLine(line);
-            if (!isValidFields(fields)) {
-                errorLogger.logError(line, "Invalid field count or null fields");
-                continue;
+            Comparator<EmployeeRecord> comparator = sorter.recordComparator(sortBy, sortOrder);
+            for (String department : departmentSpill.departments()) {
+                try (DepartmentSpill.Records records = departmentSpill.merged(department, comparator)) {
+                    writeDepartmentFile(department, limitEmployees(records));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
             }
+            if (stat) {
+                generateStat(departmentData, output, outputPath);
+            }
+        }
+    }
 
-            String role = fields[0].trim();
-            String managerId = fields[1].trim();
-            String employeeManagerId = fields[4].trim();
+    // Пропускает менеджеров и первые top сотрудников (всех без --top).
+    // С --top порядок всегда задан, а при слиянии менеджеры идут раньше сотрудников, поэтому их не отсечёт
+    private Iterator<EmployeeRecord> limitEmployees(Iterator<EmployeeRecord> records) {
+        if (top == 0) {
+            return records;
+        }
+        return new Iterator<>() {
+            private int employees;
 
-            if (AppConstants.MANAGER_ROLE.getValue().equals(role)) {
-                processManager(fields, managerId, managerDepartments, departmentData, line);
-            } else if (AppConstants.EMPLOYEE_ROLE.getValue().equals(role)) {
-                processEmployee(fields, employeeManagerId, managerDepartments, departmentData, pendingEmployees, line);
-            } else {
-                errorLogger.logError(line, "Unknown role: " + role);
+            @Override
+            public boolean hasNext() {
+                return records.hasNext() && employees < top;
+            }
+
+            @Override
+            public EmployeeRecord next() {
+                EmployeeRecord record = records.next();
+                if (!record.isManager()) {
+                    employees++;
+                }
+                return record;
             }
+        };
+    }
+
+    // Снимок сохраняется до сортировки, чтобы повторный запуск без --sort получил исходный порядок
+    private Map<String, List<EmployeeRecord>> loadOrParse(Map<Long, String> managerDepartments, List<EmployeeRecord> pendingEmployees) throws IOException {
+        Files.createDirectories(DirectoryManager.getCacheDir());
+        RecordSnapshot snapshot = new RecordSnapshot(DirectoryManager.getCacheDir().resolve(SNAPSHOT_FILE));
+        Map<String, FileFingerprint> fingerprints = snapshot.fingerprint(FileReader.listSbFiles(Paths.get(".").toAbsolutePath()));
+        Map<String, List<EmployeeRecord>> departmentData = snapshot.load(readerMode, fingerprints);
+        if (departmentData != null) {
+            departmentStatistics = null;
+            return departmentData;
         }
+
+        departmentData = new HashMap<>();
+        processData(managerDepartments, departmentData, pendingEmployees);
+        if (departmentData.isEmpty()) {
+            return departmentData;
+        }
+        try {
+            snapshot.save(readerMode, fingerprints, departmentData);
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to save record snapshot: " + e.getMessage() + ". Proceeding with partial execution.");
+        }
+        return departmentData;
     }
 
-    private String[] parseLine(String line) {
-        return FileReader.parseLine(line);
+    // Долгоживущий режим: первый проход сразу, затем по пачкам изменений; сбой пачки не останавливает наблюдение
+    private void watchDirectory(ApplicationConfig config) throws IOException {
+        Path inputDir = Paths.get(".").toAbsolutePath();
+        try (DirectoryWatcher watcher = new DirectoryWatcher(inputDir, config.getDebounceMillis())) {
+            processIncrementally(config);
+            watcher.watch(changedFiles -> {
+                try {
+                    processIncrementally(config);
+                } catch (IOException e) {
+                    errorDataLogger.logDataValidation("Failed to process changes " + changedFiles + ": " + e.getMessage() + ". Waiting for the next change.");
+                }
+            });
+        }
     }
 
-    private boolean isValidFields(String[] fields) {
-        return fields != null && fields.length == 5;
+    // Файлы отделов не пишутся: статистика сливается из частичных агрегатов, перечитываются только изменившиеся входные файлы
+    private void processStatisticsOnly(ApplicationConfig config) throws IOException {
+        try {
+            StatisticRollup partials = new PartialStatisticProcessor(this, DirectoryManager.getCacheDir()).run(Paths.get(".").toAbsolutePath(), config);
+            if (rollup) {
+                statisticRollup = partials;
+            } else {
+                departmentStatistics = partials.departments();
+            }
+        } catch (IOException e) {
+            criticalLogger.logCriticalError("Critical error processing files in directory " + OUTPUT + ": " + e.getMessage() + ". Execution terminated.");
+            throw e;
+        }
+        generateStat(null, config.getOutput(), config.getOutputPath());
     }
 
-    private boolean validateRecord(String[] fields, String line) {
-        if (fields == null || fields.length != 5) {
-            return false;
+    // Экземпляр инкрементального обработчика переживает вызов, чтобы повторные запуски не перечитывали манифест с диска
+    private void processIncrementally(ApplicationConfig config) throws IOException {
+        if (incrementalProcessor == null) {
+            incrementalProcessor = new IncrementalProcessor(this, DirectoryManager.getCacheDir());
         }
+        try {
+            incrementalProcessor.run(Paths.get(".").toAbsolutePath(), config);
+        } catch (IOException e) {
+            criticalLogger.logCriticalError("Critical error processing files in directory " + OUTPUT + ": " + e.getMessage() + ". Execution terminated.");
+            throw e;
+        }
+    }
 
-        String role = fields[0].trim();
-        String id = fields[1].trim();
-        String name = fields[2].trim();
-        String salaryStr = fields[3].trim();
-        String departmentOrManagerId = fields[4].trim();
+    @Override
+    public void processData(Map<Long, String> managerDepartments, Map<String, List<EmployeeRecord>> departmentData, List<EmployeeRecord> pendingEmployees) throws IOException {
+        Path currentDir = Paths.get(".").toAbsolutePath();
 
-        if (!AppConstants.MANAGER_ROLE.getValue().equals(role) && !AppConstants.EMPLOYEE_ROLE.getValue().equals(role)) {
-            errorLogger.logError(line, "Unknown role: " + role);
-            return false;
-        }
+        ManagerResolver resolver = new ManagerResolver(managerDepartments, departmentData, departmentStatistics, managerStatistics, statisticCreator::newStatistic);
 
-        if (id.isEmpty()) {
-            errorLogger.logError(line, "Empty ID field");
-            return false;
+        RecordHandler handler = (record, line) -> routeRecord(record, line, resolver);
+        long lineCount;
+        if (threads > 1) {
+            lineCount = ParallelFileReader.readSbFiles(currentDir, threads, chunkSize, this::createRecordReader, handler, errorLogger);
+        } else {
+            lineCount = FileReader.readSbFiles(currentDir, createRecordReader(errorLogger), handler);
+        }
+        if (lineCount == 0) {
+            errorLogger.logError("No data found in directory: " + currentDir.toAbsolutePath(), "Empty input data");
+            return;
         }
 
-        if (name.isEmpty()) {
-            errorLogger.logError(line, "Empty name field");
-            return false;
+        resolver.finish(pendingEmployees);
+        if (managerStatistics != null) {
+            statisticRollup = new StatisticRollup(managerDepartments, managerStatistics, statisticCreator::newStatistic);
         }
+    }
 
-        if (salaryStr.isEmpty()) {
-            errorLogger.logError(line, "Empty salary field");
-            return false;
+    private void routeRecord(EmployeeRecord record, String line, ManagerResolver resolver) throws IOException {
+        if (record.isManager()) {
+            resolver.addManager(record, line);
+        } else {
+            resolver.addEmployee(record);
         }
-        try {
-            double salary = Double.parseDouble(salaryStr);
-            if (salary <= 0) {
-                errorLogger.logError(line, "Non-positive salary: " + salaryStr);
-                return false;
-            }
-        } catch (NumberFormatException e) {
-            errorLogger.logError(line, "Invalid salary format: " + salaryStr);
-            return false;
+        if (spill != null) {
+            spill.recordRouted(record);
         }
+    }
 
-        if (AppConstants.MANAGER_ROLE.getValue().equals(role) && departmentOrManagerId.isEmpty()) {
-            errorLogger.logError(line, "Empty department field for manager");
-            return false;
+    RecordReader createRecordReader(DataError errorLog) {
+        if (AppConstants.READER_MMAP.getValue().equals(readerMode)) {
+            return new MappedRecordReader(errorLog);
         }
+        return new TextRecordReader(new RecordParser(errorLog));
+    }
 
-        return true;
+    protected void sortData(List<EmployeeRecord> data, String sortBy, String order) {
+        sorter.sortData(data, sortBy, order);
     }
 
-    private void processManager(String[] fields, String managerId, Map<String, String> managerDepartments, Map<String, List<String[]>> departmentData, String line) throws IOException {
-        if (!validateRecord(fields, line)) {
-            return;
+    // Строки для файла отдела: весь отдел после сортировки или, при --top, менеджер и отобранные сотрудники.
+    // Сам отдел при --top не урезается, статистика считается по всем сотрудникам.
+    protected List<EmployeeRecord> prepareDepartment(List<EmployeeRecord> data, String sortBy, String order) {
+        if (top > 0) {
+            return sorter.selectTop(data, sortBy, order, top);
         }
+        sortData(data, sortBy, order);
+        return data;
+    }
 
-        if (managerDepartments.containsKey(managerId)) {
-            errorLogger.logError(line, "Duplicate manager ID: " + managerId);
-            return;
+    protected void writeDepartmentFile(String department, Iterator<EmployeeRecord> records) {
+        try {
+            writer.writeDepartmentFile(department, records);
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to write department file for " + department + ": " + e.getMessage() + ". Proceeding with partial execution.");
         }
-
-        String department = fields[4].trim();
-        managerDepartments.put(managerId, department);
-        departmentData.computeIfAbsent(department, k -> new ArrayList<>()).add(fields);
     }
 
-    private void processEmployee(String[] fields, String employeeManagerId, Map<String, String> managerDepartments, Map<String, List<String[]>> departmentData, List<String[]> pendingEmployees, String line) throws IOException {
-        if (!validateRecord(fields, line)) {
-            return;
+    protected void writeDepartmentFile(String department, List<EmployeeRecord> data) throws IOException {
+        try {
+            writer.writeDepartmentFile(department, data);
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to write department file for " + department + ": " + e.getMessage() + ". Proceeding with partial execution.");
         }
+    }
 
-        String salaryStr = fields[3].trim();
+    protected void deleteDepartmentFile(String department) {
         try {
-            if (managerDepartments.containsKey(employeeManagerId)) {
-                String department = managerDepartments.get(employeeManagerId);
-                departmentData.computeIfAbsent(department, k -> new ArrayList<>()).add(fields);
-            } else {
-                pendingEmployees.add(fields);
-            }
-        } catch (NumberFormatException e) {
-            errorLogger.logError(line, "Invalid salary format: " + salaryStr); // Дублирование исключено, так как уже проверено
+            writer.deleteDepartmentFile(department);
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to delete department file for " + department + ": " + e.getMessage() + ". Proceeding with partial execution.");
         }
     }
 
-    protected void sortData(List<String[]> data, String sortBy, String order) {
-        sorter.sortData(data, sortBy, order);
+    SalaryStatistic newStatistic() {
+        return statisticCreator.newStatistic();
+    }
+
+    String formatStatistic(String department, List<EmployeeRecord> data) {
+        return statisticCreator.formatStatistic(department, data);
     }
 
-    protected void writeDepartmentFile(String department, List<String[]> data) throws IOException {
+    protected void writeStatistics(SortedMap<String, String> linesByDepartment, String output, String outputPath) {
         try {
-            writer.writeDepartmentFile(department, data);
+            statisticCreator.writeStatistics(linesByDepartment, output, outputPath);
         } catch (IOException e) {
-            errorDataLogger.logDataValidation("Failed to write department file for " + department + ": " + e.getMessage() + ". Proceeding with partial execution.");
+            errorDataLogger.logDataValidation("Failed to generate statistics for output " + (outputPath != null ? outputPath : "default") + ": " + e.getMessage() + ". Proceeding with partial execution.");
         }
     }
 
-    protected void generateStat(Map<String, List<String[]>> departmentData, String output, String outputPath) throws IOException {
+    // Если статистика собрана при маршрутизации, списки отделов повторно не обходятся
+    protected void generateStat(Map<String, List<EmployeeRecord>> departmentData, String output, String outputPath) throws IOException {
         try {
-            statisticCreator.createStatistic(departmentData, output, outputPath);
+            if (statisticRollup != null) {
+                statisticCreator.createStatistic(statisticRollup, output, outputPath);
+            } else if (rollup) {
+                statisticCreator.createStatistic(StatisticRollup.of(departmentData, statisticCreator::newStatistic), output, outputPath);
+            } else if (departmentStatistics != null) {
+                statisticCreator.createStatistic(new TreeMap<>(departmentStatistics), output, outputPath);
+            } else {
+                statisticCreator.createStatistic(departmentData, output, outputPath);
+            }
         } catch (IOException e) {
             errorDataLogger.logDataValidation("Failed to generate statistics for output " + (outputPath != null ? outputPath : "default") + ": " + e.getMessage() + ". Proceeding with partial execution.");
         }
@@ -0,0 +1,276 @@
+package com.example.processor;
+
+import com.example.config.ApplicationConfig;
+import com.example.filereader.FileReader;
+import com.example.filereader.ParsedChunk;
+import com.example.filereader.RecordReader;
+import com.example.incremental.FileFingerprint;
+import com.example.incremental.InputManifest;
+import com.example.logging.DataError;
+import com.example.logging.DataValidLogger;
+import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Инкрементальный запуск: перечитываются только изменившиеся файлы, перезаписываются только затронутые ими отделы.
+// Результат разбора каждого файла лежит в кэше, манифест и индекс менеджеров прошлого запуска держатся в памяти между вызовами run.
+public class IncrementalProcessor {
+    private static final String MANIFEST_FILE = "manifest.bin";
+    private static final String CHUNK_SUFFIX = ".chunk";
+    private static final DataError SILENT = (line, reason) -> { };
+    private static final FileErrorLogger errorLogger = new FileErrorLogger();
+    private static final DataValidLogger errorDataLogger = new DataValidLogger();
+
+    private final EmployeeProcessor processor;
+    private final Path cacheDir;
+    private InputManifest manifest;
+    private Map<Long, String> managerIndex;
+
+    IncrementalProcessor(EmployeeProcessor processor, Path cacheDir) {
+        this.processor = processor;
+        this.cacheDir = cacheDir;
+    }
+
+    // Полный запуск делает кэш неактуальным: следующий инкрементальный запуск начнёт с нуля
+    static void invalidate(Path cacheDir) throws IOException {
+        Files.deleteIfExists(cacheDir.resolve(MANIFEST_FILE));
+    }
+
+    public void run(Path inputDir, ApplicationConfig config) throws IOException {
+        Files.createDirectories(cacheDir);
+        InputManifest previous = loadManifest();
+        String signature = config.getSortBy() + "|" + config.getSortOrder() + "|" + config.getTop() + "|" + config.getReaderMode() + "|" + config.getCollation()
+                + "|" + (config.isQuantiles() ? config.getQuantileErrorPercent() : 0);
+        boolean configChanged = !signature.equals(previous.getConfigSignature());
+
+        Map<String, InputManifest.Entry> previousEntries = new HashMap<>();
+        for (InputManifest.Entry entry : previous.getEntries()) {
+            previousEntries.put(entry.getFileName(), entry);
+        }
+
+        List<InputManifest.Entry> entries = new ArrayList<>();
+        Map<String, ParsedChunk> parsed = new HashMap<>();
+        Set<Long> affectedManagers = new HashSet<>();
+        for (Path file : FileReader.listSbFiles(inputDir)) {
+            String fileName = file.getFileName().toString();
+            InputManifest.Entry old = previousEntries.get(fileName);
+            try {
+                FileFingerprint fingerprint = FileFingerprint.of(file, old != null ? old.getFingerprint() : null);
+                if (!configChanged && old != null && fingerprint.sameContent(old.getFingerprint()) && Files.exists(chunkFile(fileName))) {
+                    entries.add(old.withFingerprint(fingerprint));
+                    previousEntries.remove(fileName);
+                    continue;
+                }
+                ParsedChunk chunk = parse(file);
+                cacheChunk(file, fileName, chunk);
+                InputManifest.Entry entry = InputManifest.Entry.of(fileName, fingerprint, chunk);
+                entries.add(entry);
+                parsed.put(fileName, chunk);
+                collectManagers(entry, affectedManagers);
+            } catch (IOException e) {
+                errorDataLogger.logDataValidation("Failed to read file: " + file.toString() + ": " + e.getMessage() + ". Proceeding with partial execution.");
+            }
+        }
+
+        // Здесь остались изменённые и удалённые файлы: их прежние менеджеры тоже затронуты
+        for (InputManifest.Entry removed : previousEntries.values()) {
+            collectManagers(removed, affectedManagers);
+            if (!parsed.containsKey(removed.getFileName())) {
+                Files.deleteIfExists(chunkFile(removed.getFileName()));
+            }
+        }
+
+        InputManifest current = new InputManifest(signature, entries, new TreeMap<>(previous.getStatisticLines()));
+        Map<Long, String> oldIndex = previous == manifest ? managerIndex : previous.managerIndex();
+        Map<Long, String> newIndex = current.managerIndex();
+        Set<String> affectedDepartments = findAffectedDepartments(configChanged, affectedManagers, oldIndex, newIndex, previous);
+
+        Map<String, List<EmployeeRecord>> departmentData = new HashMap<>();
+        long lineCount = rebuildDepartments(inputDir, entries, parsed, newIndex, affectedDepartments, departmentData);
+
+        // Файлы исчезнувших отделов удаляются и тогда, когда входных данных не осталось совсем
+        for (String department : new TreeSet<>(affectedDepartments)) {
+            List<EmployeeRecord> data = departmentData.get(department);
+            if (data == null) {
+                processor.deleteDepartmentFile(department);
+                current.getStatisticLines().remove(department);
+                continue;
+            }
+            processor.writeDepartmentFile(department, processor.prepareDepartment(data, config.getSortBy(), config.getSortOrder()));
+            current.getStatisticLines().put(department, processor.formatStatistic(department, data));
+        }
+        if (lineCount == 0) {
+            errorLogger.logError("No data found in directory: " + inputDir.toAbsolutePath(), "Empty input data");
+            saveManifest(current, newIndex);
+            return;
+        }
+
+        if (config.isStat()) {
+            processor.writeStatistics(current.getStatisticLines(), config.getOutput(), config.getOutputPath());
+        }
+        saveManifest(current, newIndex);
+    }
+
+    private Set<String> findAffectedDepartments(boolean configChanged, Set<Long> affectedManagers, Map<Long, String> oldIndex,
+                                                Map<Long, String> newIndex, InputManifest previous) {
+        Set<String> departments = new HashSet<>();
+        if (configChanged) {
+            departments.addAll(oldIndex.values());
+            departments.addAll(newIndex.values());
+            departments.addAll(previous.getStatisticLines().keySet());
+            return departments;
+        }
+
+        // Менеджер мог сменить отдел, даже если его файл не менялся: например, удалили более раннее объявление того же ID
+        Set<Long> managerIds = new HashSet<>(oldIndex.keySet());
+        managerIds.addAll(newIndex.keySet());
+        for (Long managerId : managerIds) {
+            if (!Objects.equals(oldIndex.get(managerId), newIndex.get(managerId))) {
+                affectedManagers.add(managerId);
+            }
+        }
+        for (Long managerId : affectedManagers) {
+            addIfPresent(departments, oldIndex.get(managerId));
+            addIfPresent(departments, newIndex.get(managerId));
+        }
+        return departments;
+    }
+
+    // Воспроизводит в порядке обхода только записи затронутых отделов, поэтому порядок внутри отдела совпадает с полным запуском
+    private long rebuildDepartments(Path inputDir, List<InputManifest.Entry> entries, Map<String, ParsedChunk> parsed, Map<Long, String> newIndex,
+                                    Set<String> affectedDepartments, Map<String, List<EmployeeRecord>> departmentData) throws IOException {
+        ManagerResolver resolver = new ManagerResolver(new HashMap<>(), departmentData);
+        Set<Long> fedManagers = new HashSet<>();
+        long lineCount = 0;
+        for (InputManifest.Entry entry : entries) {
+            lineCount += entry.getLineCount();
+            ParsedChunk chunk = parsed.get(entry.getFileName());
+            if (chunk == null) {
+                if (!touches(entry, newIndex, affectedDepartments)) {
+                    continue;
+                }
+                chunk = readChunk(inputDir, entry.getFileName());
+            }
+            boolean reparsed = parsed.containsKey(entry.getFileName());
+            chunk.replay((record, line) -> {
+                if (record.isManager()) {
+                    // Дубликаты из неизменённых файлов уже были записаны в лог при их разборе
+                    if (affectedDepartments.contains(newIndex.get(record.id())) && (fedManagers.add(record.id()) || reparsed)) {
+                        resolver.addManager(record, line);
+                    }
+                } else if (affectedDepartments.contains(newIndex.get(record.managerId()))) {
+                    resolver.addEmployee(record);
+                }
+            }, reparsed ? errorLogger : SILENT);
+        }
+        resolver.finish(new ArrayList<>());
+        return lineCount;
+    }
+
+    private boolean touches(InputManifest.Entry entry, Map<Long, String> newIndex, Set<String> affectedDepartments) {
+        for (Long managerId : entry.getManagers().keySet()) {
+            if (affectedDepartments.contains(newIndex.get(managerId))) {
+                return true;
+            }
+        }
+        for (Long managerId : entry.getReferencedManagers()) {
+            if (affectedDepartments.contains(newIndex.get(managerId))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void collectManagers(InputManifest.Entry entry, Set<Long> affectedManagers) {
+        affectedManagers.addAll(entry.getManagers().keySet());
+        affectedManagers.addAll(entry.getReferencedManagers());
+    }
+
+    private void addIfPresent(Set<String> departments, String department) {
+        if (department != null) {
+            departments.add(department);
+        }
+    }
+
+    // Ошибка посреди файла не отбрасывает уже разобранные записи, как и при полном запуске
+    private ParsedChunk parse(Path file) {
+        ParsedChunk chunk = new ParsedChunk();
+        RecordReader reader = processor.createRecordReader(chunk);
+        try {
+            chunk.setLineCount(reader.read(file, chunk));
+        } catch (IOException e) {
+            chunk.fail(e);
+        }
+        return chunk;
+    }
+
+    // Оборванный разбор не кэшируется: следующий запуск прочитает файл заново и снова запишет ошибку в лог
+    private void cacheChunk(Path file, String fileName, ParsedChunk chunk) throws IOException {
+        if (chunk.getFailure() == null) {
+            writeChunk(fileName, chunk);
+            return;
+        }
+        errorDataLogger.logDataValidation("Failed to read file: " + file.toString() + ": " + chunk.getFailure().getMessage() + ". Proceeding with partial execution.");
+        Files.deleteIfExists(chunkFile(fileName));
+    }
+
+    private ParsedChunk readChunk(Path inputDir, String fileName) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(chunkFile(fileName))))) {
+            return ParsedChunk.readFrom(in);
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to read cached data for %s: %s. Re-reading the source file.", fileName, e.getMessage());
+            ParsedChunk chunk = parse(inputDir.resolve(fileName));
+            cacheChunk(inputDir.resolve(fileName), fileName, chunk);
+            return chunk;
+        }
+    }
+
+    private void writeChunk(String fileName, ParsedChunk chunk) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(chunkFile(fileName))))) {
+            chunk.writeTo(out);
+        }
+    }
+
+    private Path chunkFile(String fileName) {
+        return cacheDir.resolve(fileName + CHUNK_SUFFIX);
+    }
+
+    private InputManifest loadManifest() {
+        if (manifest != null) {
+            return manifest;
+        }
+        try {
+            return InputManifest.load(cacheDir.resolve(MANIFEST_FILE));
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to load incremental manifest: %s. Rebuilding all departments.", e.getMessage());
+            return InputManifest.empty();
+        }
+    }
+
+    private void saveManifest(InputManifest current, Map<Long, String> currentIndex) throws IOException {
+        manifest = current;
+        managerIndex = currentIndex;
+        try {
+            current.save(cacheDir.resolve(MANIFEST_FILE));
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to save incremental manifest: %s. Next run will rebuild all departments.", e.getMessage());
+            Files.deleteIfExists(cacheDir.resolve(MANIFEST_FILE));
+        }
+    }
+}
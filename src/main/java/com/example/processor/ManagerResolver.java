@@ -0,0 +1,105 @@
+package com.example.processor;
+
+import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+import com.example.statistic.SalaryStatistic;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Однопроходная привязка сотрудников к отделам: сотрудник, чей менеджер ещё не встречался,
+// ждёт в индексе по ID менеджера и переносится в отдел сразу после появления менеджера.
+// Внутри отдела сохраняется порядок ввода для каждого менеджера, но не между разными менеджерами одного отдела.
+public class ManagerResolver {
+    private static final FileErrorLogger errorLogger = new FileErrorLogger();
+
+    private final Map<Long, String> managerDepartments;
+    private final Map<String, List<EmployeeRecord>> departmentData;
+    private final Map<Long, List<EmployeeRecord>> pendingByManager = new LinkedHashMap<>();
+    private final Map<String, SalaryStatistic> statistics;
+    private final Map<Long, SalaryStatistic> managerStatistics;
+    private final Supplier<SalaryStatistic> newStatistic;
+
+    public ManagerResolver(Map<Long, String> managerDepartments, Map<String, List<EmployeeRecord>> departmentData) {
+        this(managerDepartments, departmentData, null);
+    }
+
+    // statistics != null: статистика отдела обновляется в момент, когда сотрудник попадает в отдел
+    public ManagerResolver(Map<Long, String> managerDepartments, Map<String, List<EmployeeRecord>> departmentData, Map<String, SalaryStatistic> statistics) {
+        this(managerDepartments, departmentData, statistics, SalaryStatistic::new);
+    }
+
+    // newStatistic создаёт статистику нового отдела, например со скетчем квантилей
+    public ManagerResolver(Map<Long, String> managerDepartments, Map<String, List<EmployeeRecord>> departmentData,
+                           Map<String, SalaryStatistic> statistics, Supplier<SalaryStatistic> newStatistic) {
+        this(managerDepartments, departmentData, statistics, null, newStatistic);
+    }
+
+    // managerStatistics != null: статистика копится и по ID менеджера, для свода по менеджерам, отделам и компании
+    public ManagerResolver(Map<Long, String> managerDepartments, Map<String, List<EmployeeRecord>> departmentData,
+                           Map<String, SalaryStatistic> statistics, Map<Long, SalaryStatistic> managerStatistics, Supplier<SalaryStatistic> newStatistic) {
+        this.managerDepartments = managerDepartments;
+        this.departmentData = departmentData;
+        this.statistics = statistics;
+        this.managerStatistics = managerStatistics;
+        this.newStatistic = newStatistic;
+    }
+
+    public void addManager(EmployeeRecord manager, String line) {
+        if (managerDepartments.containsKey(manager.id())) {
+            errorLogger.logError(line, "Duplicate manager ID: " + EmployeeId.text(manager.id()));
+            return;
+        }
+
+        String department = manager.department();
+        managerDepartments.put(manager.id(), department);
+        List<EmployeeRecord> bucket = departmentData.computeIfAbsent(department, k -> new ArrayList<>());
+        bucket.add(manager);
+
+        List<EmployeeRecord> waiting = pendingByManager.remove(manager.id());
+        if (waiting != null) {
+            bucket.addAll(waiting);
+        }
+        if (statistics != null) {
+            addSalaries(statistics.computeIfAbsent(department, k -> newStatistic.get()), waiting);
+        }
+        if (managerStatistics != null) {
+            addSalaries(managerStatistics.computeIfAbsent(manager.id(), k -> newStatistic.get()), waiting);
+        }
+    }
+
+    public void addEmployee(EmployeeRecord employee) {
+        String department = managerDepartments.get(employee.managerId());
+        if (department != null) {
+            departmentData.computeIfAbsent(department, k -> new ArrayList<>()).add(employee);
+            if (statistics != null) {
+                statistics.computeIfAbsent(department, k -> newStatistic.get()).add(employee.salary());
+            }
+            if (managerStatistics != null) {
+                managerStatistics.computeIfAbsent(employee.managerId(), k -> newStatistic.get()).add(employee.salary());
+            }
+        } else {
+            pendingByManager.computeIfAbsent(employee.managerId(), k -> new ArrayList<>()).add(employee);
+        }
+    }
+
+    private void addSalaries(SalaryStatistic statistic, List<EmployeeRecord> employees) {
+        if (employees != null) {
+            for (EmployeeRecord employee : employees) {
+                statistic.add(employee.salary());
+            }
+        }
+    }
+
+    // Конец ввода: сотрудники без найденного менеджера возвращаются вызывающему
+    public void finish(List<EmployeeRecord> unresolvedEmployees) {
+        for (List<EmployeeRecord> waiting : pendingByManager.values()) {
+            unresolvedEmployees.addAll(waiting);
+        }
+        pendingByManager.clear();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.processor;
+
+import com.example.config.ApplicationConfig;
+import com.example.filereader.FileReader;
+import com.example.incremental.FileFingerprint;
+import com.example.incremental.StatisticPartials;
+import com.example.logging.DataValidLogger;
+import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeId;
+import com.example.statistic.SalaryStatistic;
+import com.example.statistic.StatisticRollup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Статистика без файлов отделов: каждый входной файл сводится к частичным агрегатам по менеджерам,
+// агрегаты сохраняются в кэше и при следующем запуске пересчитываются только для изменившихся файлов
+public class PartialStatisticProcessor {
+    private static final String PARTIALS_FILE = "statistic-partials.bin";
+    private static final FileErrorLogger errorLogger = new FileErrorLogger();
+    private static final DataValidLogger errorDataLogger = new DataValidLogger();
+
+    private final EmployeeProcessor processor;
+    private final Path cacheDir;
+
+    PartialStatisticProcessor(EmployeeProcessor processor, Path cacheDir) {
+        this.processor = processor;
+        this.cacheDir = cacheDir;
+    }
+
+    public StatisticRollup run(Path inputDir, ApplicationConfig config) throws IOException {
+        Files.createDirectories(cacheDir);
+        StatisticPartials previous = loadPartials();
+        String signature = config.getReaderMode() + "|" + (config.isQuantiles() ? config.getQuantileErrorPercent() : 0);
+        boolean configChanged = !signature.equals(previous.getConfigSignature());
+
+        Map<String, StatisticPartials.Entry> previousEntries = new HashMap<>();
+        for (StatisticPartials.Entry entry : previous.getEntries()) {
+            previousEntries.put(entry.getFileName(), entry);
+        }
+
+        List<StatisticPartials.Entry> entries = new ArrayList<>();
+        Map<String, Map<Long, String>> managerLines = new HashMap<>();
+        long lineCount = 0;
+        for (Path file : FileReader.listSbFiles(inputDir)) {
+            String fileName = file.getFileName().toString();
+            StatisticPartials.Entry old = previousEntries.get(fileName);
+            try {
+                FileFingerprint fingerprint = FileFingerprint.of(file, old != null ? old.getFingerprint() : null);
+                StatisticPartials.Entry entry;
+                if (!configChanged && old != null && fingerprint.sameContent(old.getFingerprint())) {
+                    entry = old.withFingerprint(fingerprint);
+                } else {
+                    Map<Long, String> lines = new HashMap<>();
+                    entry = aggregate(file, fileName, fingerprint, lines);
+                    managerLines.put(fileName, lines);
+                }
+                entries.add(entry);
+                lineCount += entry.getLineCount();
+            } catch (IOException e) {
+                errorDataLogger.logDataValidation("Failed to read file: " + file.toString() + ": " + e.getMessage() + ". Proceeding with partial execution.");
+            }
+        }
+        if (lineCount == 0) {
+            errorLogger.logError("No data found in directory: " + inputDir.toAbsolutePath(), "Empty input data");
+        }
+
+        logDuplicateManagers(entries, managerLines);
+
+        StatisticPartials current = new StatisticPartials(signature, entries);
+        savePartials(current);
+        return current.rollup(processor::newStatistic);
+    }
+
+    // Дубликат менеджера внутри файла пишется в лог, как при полном разборе; первое объявление выигрывает.
+    // Ошибка посреди файла оставляет записи до неё; такой агрегат идёт в статистику без отпечатка и не кэшируется
+    private StatisticPartials.Entry aggregate(Path file, String fileName, FileFingerprint fingerprint, Map<Long, String> managerLines) {
+        Map<Long, String> managers = new LinkedHashMap<>();
+        Map<Long, SalaryStatistic> salariesByManager = new HashMap<>();
+        try {
+            long lineCount = processor.createRecordReader(errorLogger).read(file, (record, line) -> {
+                if (!record.isManager()) {
+                    salariesByManager.computeIfAbsent(record.managerId(), k -> processor.newStatistic()).add(record.salary());
+                } else if (managers.putIfAbsent(record.id(), record.department()) == null) {
+                    managerLines.put(record.id(), line);
+                } else {
+                    errorLogger.logError(line, "Duplicate manager ID: " + EmployeeId.text(record.id()));
+                }
+            });
+            return new StatisticPartials.Entry(fileName, fingerprint, lineCount, managers, salariesByManager);
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to read file: " + file.toString() + ": " + e.getMessage() + ". Proceeding with partial execution.");
+            return new StatisticPartials.Entry(fileName, null, 0, managers, salariesByManager);
+        }
+    }
+
+    // Повтор менеджера из более раннего файла; дубликаты из неизменённых файлов уже были записаны в лог при их разборе
+    private void logDuplicateManagers(List<StatisticPartials.Entry> entries, Map<String, Map<Long, String>> managerLines) {
+        Set<Long> declared = new HashSet<>();
+        for (StatisticPartials.Entry entry : entries) {
+            Map<Long, String> lines = managerLines.get(entry.getFileName());
+            for (Long managerId : entry.getManagers().keySet()) {
+                if (!declared.add(managerId) && lines != null) {
+                    errorLogger.logError(lines.get(managerId), "Duplicate manager ID: " + EmployeeId.text(managerId));
+                }
+            }
+        }
+    }
+
+    private StatisticPartials loadPartials() {
+        try {
+            return StatisticPartials.load(cacheDir.resolve(PARTIALS_FILE));
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to load statistic partials: %s. Re-reading all files.", e.getMessage());
+            return StatisticPartials.empty();
+        }
+    }
+
+    private void savePartials(StatisticPartials current) throws IOException {
+        try {
+            current.save(cacheDir.resolve(PARTIALS_FILE));
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to save statistic partials: %s. Next run will re-read all files.", e.getMessage());
+            Files.deleteIfExists(cacheDir.resolve(PARTIALS_FILE));
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.sorting;
 
+import com.example.model.EmployeeRecord;
+
 import java.util.List;
 
 public interface DataSorter {
-    void sortData(List<String[]> data, String sortBy, String order);
-}
\ No newline at end of file
+    void sortData(List<EmployeeRecord> data, String sortBy, String order);
+
+    List<EmployeeRecord> selectTop(List<EmployeeRecord> data, String sortBy, String order, int limit);
+}
@@ -1,22 +1,49 @@
 package com.example.sorting;
 
 import com.example.enums.AppConstants;
-import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeRecord;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 
 public class EmployeeDataSorter implements DataSorter {
-    private static final FileErrorLogger errorLogger = new FileErrorLogger();
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 100_000;
+    // Начиная с этого размера сортировка только по зарплате идёт поразрядно, а не сравнениями;
+    // порог параллельной сортировки на неё не действует: поразрядная сортировка и так линейна
+    static final int RADIX_THRESHOLD = 1 << 10;
+
+    enum SortPath { RADIX, PARALLEL, SEQUENTIAL }
+
+    private final int parallelThreshold;
+    private final Locale collation;
+    // Критерии разбираются при первом вызове и переиспользуются, пока sortBy/order не поменяются
+    private volatile SortCriteria criteria;
+
+    public EmployeeDataSorter() {
+        this(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    // Отделы, в которых сотрудников больше parallelThreshold, сортируются параллельно (кроме поразрядной сортировки по зарплате)
+    public EmployeeDataSorter(int parallelThreshold) {
+        this(parallelThreshold, null);
+    }
+
+    // С collation имена сравниваются по правилам языка этой локали, без неё — по кодам символов
+    public EmployeeDataSorter(int parallelThreshold, Locale collation) {
+        this.parallelThreshold = parallelThreshold;
+        this.collation = collation;
+    }
 
     @Override
-    public void sortData(List<String[]> data, String sortBy, String order) {
+    public void sortData(List<EmployeeRecord> data, String sortBy, String order) {
         if (data == null || data.isEmpty() || sortBy == null) {
             return;
         }
 
-        String[] manager = extractManager(data);
+        EmployeeRecord manager = extractManager(data);
         if (data.isEmpty()) {
             if (manager != null) {
                 data.add(manager);
@@ -24,65 +51,113 @@ public class EmployeeDataSorter implements DataSorter {
             return;
         }
 
-        data.sort(createComparator(sortBy, order));
+        sortByIndex(data, compile(sortBy, order));
 
         if (manager != null) {
             data.add(0, manager);
         }
     }
 
-    protected String[] extractManager(List<String[]> data) {
-        Iterator<String[]> iterator = data.iterator();
+    // Первые limit сотрудников в порядке sortBy/order без полной сортировки; исходный список не меняется.
+    // Без критерия сортировки отбираются самые высокие зарплаты.
+    @Override
+    public List<EmployeeRecord> selectTop(List<EmployeeRecord> data, String sortBy, String order, int limit) {
+        List<EmployeeRecord> selected = new ArrayList<>();
+        if (data == null || data.isEmpty()) {
+            return selected;
+        }
+        if (sortBy == null) {
+            sortBy = AppConstants.SORT_SALARY.getValue();
+            order = AppConstants.ORDER_DESC.getValue();
+        }
+
+        List<EmployeeRecord> employees = new ArrayList<>(data.size());
+        for (EmployeeRecord record : data) {
+            (record.isManager() ? selected : employees).add(record);
+        }
+        SortCriteria criteria = compile(sortBy, order);
+        if (criteria == null) {
+            selected.addAll(employees.subList(0, Math.min(limit, employees.size())));
+            return selected;
+        }
+        for (int index : IndexSelect.selectSmallest(employees.size(), limit, criteria.comparator(employees, collation))) {
+            selected.add(employees.get(index));
+        }
+        return selected;
+    }
+
+    // Сравнение записей в том же порядке, что даёт sortData; null, если sortBy не задаёт ни одного ключа
+    public Comparator<EmployeeRecord> recordComparator(String sortBy, String order) {
+        SortCriteria criteria = compile(sortBy, order);
+        return criteria == null ? null : criteria.recordComparator(collation);
+    }
+
+    protected EmployeeRecord extractManager(List<EmployeeRecord> data) {
+        Iterator<EmployeeRecord> iterator = data.iterator();
         while (iterator.hasNext()) {
-            String[] fields = iterator.next();
-            if (AppConstants.MANAGER_ROLE.getValue().equals(fields[0].trim())) {
+            EmployeeRecord record = iterator.next();
+            if (record.isManager()) {
                 iterator.remove();
-                return fields;
+                return record;
             }
         }
         return null;
     }
 
-    private Comparator<String[]> createComparator(String sortBy, String order) {
-        return (a, b) -> {
-            if (!isEmployee(a) || !isEmployee(b)) {
-                return 0;
-            }
+    // Ключ сортировки извлекается один раз на строку, сортируется перестановка индексов, затем строки переставляются за один проход.
+    // Остальные менеджеры отдела остаются перед сотрудниками в исходном порядке.
+    private void sortByIndex(List<EmployeeRecord> data, SortCriteria criteria) {
+        List<EmployeeRecord> managers = new ArrayList<>();
+        List<EmployeeRecord> employees = new ArrayList<>(data.size());
+        for (EmployeeRecord record : data) {
+            (record.isManager() ? managers : employees).add(record);
+        }
 
-            int comparison = compareByCriteria(a, b, sortBy);
-            return isDescendingOrder(order) ? -comparison : comparison;
-        };
+        int[] order = criteria == null ? null : sortedOrder(employees, criteria);
+        data.clear();
+        data.addAll(managers);
+        if (order == null) {
+            data.addAll(employees);
+            return;
+        }
+        for (int index : order) {
+            data.add(employees.get(index));
+        }
     }
 
-    private boolean isEmployee(String[] fields) {
-        return AppConstants.EMPLOYEE_ROLE.getValue().equals(fields[0].trim());
+    private int[] sortedOrder(List<EmployeeRecord> employees, SortCriteria criteria) {
+        SortPath path = sortPath(employees.size(), criteria);
+        if (path == SortPath.RADIX) {
+            return RadixSort.sortedOrder(SortCriteria.salaryKeys(employees), criteria.isDescending(0));
+        }
+        IndexSort.IndexComparator comparator = criteria.comparator(employees, collation);
+        return path == SortPath.PARALLEL
+                ? IndexSort.parallelSortedOrder(employees.size(), comparator)
+                : IndexSort.sortedOrder(employees.size(), comparator);
     }
 
-    private boolean isDescendingOrder(String order) {
-        return AppConstants.ORDER_DESC.getValue().equals(order);
+    // Способ сортировки для rows сотрудников; null, если sortBy не задаёт ни одного ключа
+    SortPath sortPath(int rows, String sortBy, String order) {
+        SortCriteria criteria = compile(sortBy, order);
+        return criteria == null ? null : sortPath(rows, criteria);
     }
 
-    private int compareByCriteria(String[] a, String[] b, String sortBy) {
-        if (AppConstants.SORT_NAME.getValue().equals(sortBy)) {
-            return compareByName(a, b);
-        } else if (AppConstants.SORT_SALARY.getValue().equals(sortBy)) {
-            return compareBySalary(a, b);
+    private SortPath sortPath(int rows, SortCriteria criteria) {
+        if (criteria.isSingleSalaryKey() && rows >= RADIX_THRESHOLD) {
+            return SortPath.RADIX;
         }
-        return 0;
+        return rows > parallelThreshold ? SortPath.PARALLEL : SortPath.SEQUENTIAL;
     }
 
-    private int compareByName(String[] a, String[] b) {
-        return a[2].trim().compareTo(b[2].trim());
-    }
-
-    private int compareBySalary(String[] a, String[] b) {
-        try {
-            double salaryA = Double.parseDouble(a[3].trim());
-            double salaryB = Double.parseDouble(b[3].trim());
-            return Double.compare(salaryA, salaryB);
-        } catch (NumberFormatException e) {
-            errorLogger.logError(a[3] + "," + b[3], "Invalid salary format during sorting: " + e.getMessage());
-            return 0;
+    private SortCriteria compile(String sortBy, String order) {
+        SortCriteria current = criteria;
+        if (current != null && current.matches(sortBy, order)) {
+            return current;
+        }
+        SortCriteria parsed = SortCriteria.parse(sortBy, order);
+        if (parsed != null) {
+            criteria = parsed;
         }
+        return parsed;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.example.sorting;
+
+// Выбор limit наименьших индексов ограниченной кучей за O(n log limit) и O(limit) памяти.
+// Равные ключи упорядочены по индексу, поэтому результат совпадает с началом устойчивой сортировки.
+final class IndexSelect {
+
+    private IndexSelect() {
+    }
+
+    static int[] selectSmallest(int size, int limit, IndexSort.IndexComparator comparator) {
+        IndexSort.IndexComparator total = (a, b) -> {
+            int comparison = comparator.compare(a, b);
+            return comparison != 0 ? comparison : Integer.compare(a, b);
+        };
+        if (limit >= size) {
+            return IndexSort.sortedOrder(size, comparator);
+        }
+
+        // Максимальная куча: в корне худший из уже отобранных
+        int[] heap = new int[limit];
+        for (int i = 0; i < limit; i++) {
+            heap[i] = i;
+            siftUp(heap, i, total);
+        }
+        for (int i = limit; i < size; i++) {
+            if (total.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, limit, total);
+            }
+        }
+
+        IndexSort.sort(heap, new int[limit], 0, limit, total);
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int position, IndexSort.IndexComparator comparator) {
+        int value = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (comparator.compare(heap[parent], value) >= 0) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = value;
+    }
+
+    private static void siftDown(int[] heap, int size, IndexSort.IndexComparator comparator) {
+        int value = heap[0];
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(value, heap[child]) >= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = value;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.sorting;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Устойчивая сортировка перестановки индексов слиянием: ключи лежат в примитивных массивах
+// и сравниваются по индексам, сами записи переставляются один раз по готовой перестановке
+final class IndexSort {
+    private static final int INSERTION_THRESHOLD = 32;
+    private static final int PARALLEL_GRAIN = 1 << 13;
+
+    private IndexSort() {
+    }
+
+    interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    static int[] sortedOrder(int size, IndexComparator comparator) {
+        int[] order = identity(size);
+        sort(order, new int[size], 0, size, comparator);
+        return order;
+    }
+
+    // Тот же устойчивый порядок, но половины сортируются fork/join-задачами в общем пуле
+    static int[] parallelSortedOrder(int size, IndexComparator comparator) {
+        if (ForkJoinPool.getCommonPoolParallelism() < 2 || size <= PARALLEL_GRAIN) {
+            return sortedOrder(size, comparator);
+        }
+        int[] order = identity(size);
+        ForkJoinPool.commonPool().invoke(new SortTask(order, new int[size], 0, size, comparator));
+        return order;
+    }
+
+    static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    // Сортирует order[from, to); buffer того же размера, что и order
+    static void sort(int[] order, int[] buffer, int from, int to, IndexComparator comparator) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            insertionSort(order, from, to, comparator);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(order, buffer, from, middle, comparator);
+        sort(order, buffer, middle, to, comparator);
+        merge(order, buffer, from, middle, to, comparator);
+    }
+
+    // При равенстве берётся элемент из левой половины, поэтому сортировка устойчива
+    static void merge(int[] order, int[] buffer, int from, int middle, int to, IndexComparator comparator) {
+        if (comparator.compare(order[middle - 1], order[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static void insertionSort(int[] order, int from, int to, IndexComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int current = order[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(order[j], current) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
+
+    private static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+        private final IndexComparator comparator;
+
+        private SortTask(int[] order, int[] buffer, int from, int to, IndexComparator comparator) {
+            this.order = order;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                sort(order, buffer, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(order, buffer, from, middle, comparator), new SortTask(order, buffer, middle, to, comparator));
+            merge(order, buffer, from, middle, to, comparator);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.sorting;
+
+// LSD-сортировка перестановки индексов по 64-битным ключам (зарплата в копейках), по байту за проход.
+// Каждый проход устойчив, поэтому равные ключи остаются в исходном порядке и при убывании.
+final class RadixSort {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+    private RadixSort() {
+    }
+
+    static int[] sortedOrder(long[] keys, boolean descending) {
+        int size = keys.length;
+        int[] order = IndexSort.identity(size);
+        if (size < 2) {
+            return order;
+        }
+
+        // Знаковый бит инвертируется, чтобы отрицательные ключи шли раньше; при убывании инвертируется весь ключ
+        long[] sortKeys = new long[size];
+        int[][] counts = new int[PASSES][RADIX];
+        for (int i = 0; i < size; i++) {
+            long key = keys[i] ^ Long.MIN_VALUE;
+            if (descending) {
+                key = ~key;
+            }
+            sortKeys[i] = key;
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass][(int) (key >>> (pass * RADIX_BITS)) & (RADIX - 1)]++;
+            }
+        }
+
+        int[] orderBuffer = new int[size];
+        long[] keyBuffer = new long[size];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            int[] count = counts[pass];
+            // Если у всех ключей этот байт одинаковый (например, старшие байты зарплат), проход ничего не меняет
+            if (count[(int) (sortKeys[0] >>> shift) & (RADIX - 1)] == size) {
+                continue;
+            }
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int digitCount = count[digit];
+                count[digit] = position;
+                position += digitCount;
+            }
+            for (int i = 0; i < size; i++) {
+                long key = sortKeys[i];
+                int target = count[(int) (key >>> shift) & (RADIX - 1)]++;
+                keyBuffer[target] = key;
+                orderBuffer[target] = order[i];
+            }
+            long[] swapKeys = sortKeys;
+            sortKeys = keyBuffer;
+            keyBuffer = swapKeys;
+            int[] swapOrder = order;
+            order = orderBuffer;
+            orderBuffer = swapOrder;
+        }
+        return order;
+    }
+}
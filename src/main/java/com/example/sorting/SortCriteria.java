@@ -0,0 +1,158 @@
+package com.example.sorting;
+
+import com.example.enums.AppConstants;
+import com.example.model.EmployeeRecord;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Разобранные один раз списки --sort/--order: ключи по приоритету, для каждого направление.
+// Ключу без пары в --order соответствует asc, как и одиночной сортировке без --order.
+final class SortCriteria {
+    static final String SEPARATOR = ",";
+
+    enum Key { SALARY, NAME }
+
+    private final String sortBy;
+    private final String order;
+    private final Key[] keys;
+    private final boolean[] descending;
+
+    private SortCriteria(String sortBy, String order, Key[] keys, boolean[] descending) {
+        this.sortBy = sortBy;
+        this.order = order;
+        this.keys = keys;
+        this.descending = descending;
+    }
+
+    // null, если в sortBy нет ни одного известного ключа
+    static SortCriteria parse(String sortBy, String order) {
+        if (sortBy == null) {
+            return null;
+        }
+        String[] orders = order == null ? new String[0] : order.split(SEPARATOR);
+        List<Key> keys = new ArrayList<>();
+        List<Boolean> directions = new ArrayList<>();
+        String[] names = sortBy.split(SEPARATOR);
+        for (int i = 0; i < names.length; i++) {
+            Key key = keyOf(names[i].trim());
+            if (key == null || keys.contains(key)) {
+                continue;
+            }
+            keys.add(key);
+            directions.add(i < orders.length && AppConstants.ORDER_DESC.getValue().equals(orders[i].trim()));
+        }
+        if (keys.isEmpty()) {
+            return null;
+        }
+        boolean[] descending = new boolean[directions.size()];
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = directions.get(i);
+        }
+        return new SortCriteria(sortBy, order, keys.toArray(new Key[0]), descending);
+    }
+
+    boolean matches(String sortBy, String order) {
+        return this.sortBy.equals(sortBy) && (this.order == null ? order == null : this.order.equals(order));
+    }
+
+    // Единственный ключ — зарплата: такой порядок можно получить поразрядной сортировкой
+    boolean isSingleSalaryKey() {
+        return keys.length == 1 && keys[0] == Key.SALARY;
+    }
+
+    boolean isDescending(int position) {
+        return descending[position];
+    }
+
+    // Ключи извлекаются в примитивные массивы один раз на отдел; цепочка сравнений собирается без разбора строк.
+    // collation может быть null — тогда имена сравниваются String.compareTo
+    IndexSort.IndexComparator comparator(List<EmployeeRecord> employees, Locale collation) {
+        IndexSort.IndexComparator chain = keyComparator(employees, keys.length - 1, collation);
+        for (int i = keys.length - 2; i >= 0; i--) {
+            IndexSort.IndexComparator first = keyComparator(employees, i, collation);
+            IndexSort.IndexComparator next = chain;
+            chain = (a, b) -> {
+                int comparison = first.compare(a, b);
+                return comparison != 0 ? comparison : next.compare(a, b);
+            };
+        }
+        return chain;
+    }
+
+    // Порядок отдельных записей для слияния уже отсортированных частей: менеджеры раньше сотрудников
+    // и между собой равны, сотрудники — по ключам. Совпадает с порядком sortData при устойчивом слиянии
+    Comparator<EmployeeRecord> recordComparator(Locale collation) {
+        Collator collator = collation == null ? null : Collator.getInstance(collation);
+        Comparator<EmployeeRecord> byRole = (a, b) -> Boolean.compare(!a.isManager(), !b.isManager());
+        Comparator<EmployeeRecord> chain = byRole;
+        for (int i = 0; i < keys.length; i++) {
+            Comparator<EmployeeRecord> key = keys[i] == Key.SALARY
+                    ? Comparator.comparingLong(EmployeeRecord::salary)
+                    : collator == null
+                            ? Comparator.comparing(EmployeeRecord::name)
+                            : Comparator.comparing(EmployeeRecord::name, collator);
+            chain = chain.thenComparing(descending[i] ? key.reversed() : key);
+        }
+        Comparator<EmployeeRecord> employees = chain;
+        return (a, b) -> a.isManager() || b.isManager() ? byRole.compare(a, b) : employees.compare(a, b);
+    }
+
+    static long[] salaryKeys(List<EmployeeRecord> employees) {
+        long[] salaries = new long[employees.size()];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = employees.get(i).salary();
+        }
+        return salaries;
+    }
+
+    private IndexSort.IndexComparator keyComparator(List<EmployeeRecord> employees, int position, Locale collation) {
+        if (keys[position] == Key.SALARY) {
+            long[] salaries = salaryKeys(employees);
+            return descending[position]
+                    ? (a, b) -> Long.compare(salaries[b], salaries[a])
+                    : (a, b) -> Long.compare(salaries[a], salaries[b]);
+        }
+        if (collation != null) {
+            byte[][] sortKeys = collationKeys(employees, collation);
+            return descending[position]
+                    ? (a, b) -> Arrays.compareUnsigned(sortKeys[b], sortKeys[a])
+                    : (a, b) -> Arrays.compareUnsigned(sortKeys[a], sortKeys[b]);
+        }
+        String[] names = new String[employees.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = employees.get(i).name();
+        }
+        return descending[position]
+                ? (a, b) -> names[b].compareTo(names[a])
+                : (a, b) -> names[a].compareTo(names[b]);
+    }
+
+    // Ключ сопоставления считается один раз на каждое различное имя; байтовое сравнение ключей
+    // даёт тот же порядок, что Collator.compare, но без разбора правил на каждое сравнение
+    private static byte[][] collationKeys(List<EmployeeRecord> employees, Locale collation) {
+        Collator collator = Collator.getInstance(collation);
+        Map<String, byte[]> cache = new HashMap<>();
+        byte[][] sortKeys = new byte[employees.size()][];
+        for (int i = 0; i < sortKeys.length; i++) {
+            sortKeys[i] = cache.computeIfAbsent(employees.get(i).name(), name -> collator.getCollationKey(name).toByteArray());
+        }
+        return sortKeys;
+    }
+
+    private static Key keyOf(String name) {
+        if (AppConstants.SORT_SALARY.getValue().equals(name)) {
+            return Key.SALARY;
+        }
+        if (AppConstants.SORT_NAME.getValue().equals(name)) {
+            return Key.NAME;
+        }
+        return null;
+    }
+}
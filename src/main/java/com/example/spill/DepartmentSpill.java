@@ -0,0 +1,194 @@
+package com.example.spill;
+
+import com.example.model.EmployeeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Внешняя сортировка отделов. Пока идёт маршрутизация, оценивается объём записей в departmentData; при превышении
+// бюджета все отделы сортируются и сбрасываются на диск одним файлом, а в памяти остаются пустые списки.
+// В конце каждый отдел собирается k-путевым слиянием сбросов и остатка в памяти и отдаётся потоком.
+// Сотрудники, ждущие ещё не встреченного менеджера, в бюджет входят, но на диск не сбрасываются.
+public class DepartmentSpill implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentSpill.class);
+    // Примерный размер записи в куче без учёта символов имени: сам объект, строка имени и ссылка в списке
+    private static final long RECORD_OVERHEAD = 96;
+
+    // Сортирует сброс так же, как отдел в памяти; при сравнении слиянием равные записи берутся из более раннего сброса
+    public interface RunSorter {
+        void sort(List<EmployeeRecord> records);
+    }
+
+    private final Path directory;
+    private final long budgetBytes;
+    private final Map<String, List<EmployeeRecord>> departmentData;
+    private final RunSorter runSorter;
+    private final List<RunFile> runs = new ArrayList<>();
+    private long estimatedBytes;
+    private long spillAt;
+
+    public DepartmentSpill(Path directory, long budgetBytes, Map<String, List<EmployeeRecord>> departmentData, RunSorter runSorter) {
+        this.directory = directory;
+        this.budgetBytes = budgetBytes;
+        this.departmentData = departmentData;
+        this.runSorter = runSorter;
+        this.spillAt = budgetBytes;
+    }
+
+    // Вызывается после маршрутизации каждой записи
+    public void recordRouted(EmployeeRecord record) throws IOException {
+        estimatedBytes += estimate(record);
+        if (estimatedBytes > spillAt) {
+            spill();
+        }
+    }
+
+    public int runCount() {
+        return runs.size();
+    }
+
+    public Set<String> departments() {
+        Set<String> departments = new LinkedHashSet<>(departmentData.keySet());
+        for (RunFile run : runs) {
+            for (String department : run.departments()) {
+                departments.add(department);
+            }
+        }
+        return departments;
+    }
+
+    // Записи отдела в итоговом порядке. comparator == null — сбросы просто идут друг за другом в порядке ввода
+    public Records merged(String department, Comparator<EmployeeRecord> comparator) throws IOException {
+        Records records = new Records(comparator == null ? (a, b) -> 0 : comparator);
+        try {
+            for (RunFile run : runs) {
+                if (run.contains(department)) {
+                    records.add(run.open(department));
+                }
+            }
+        } catch (IOException e) {
+            records.close();
+            throw e;
+        }
+        List<EmployeeRecord> rest = departmentData.get(department);
+        if (rest != null && !rest.isEmpty()) {
+            runSorter.sort(rest);
+            records.add(rest.iterator());
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (RunFile run : runs) {
+            run.delete();
+        }
+        runs.clear();
+        Files.deleteIfExists(directory);
+    }
+
+    private void spill() throws IOException {
+        Map<String, List<EmployeeRecord>> run = new LinkedHashMap<>();
+        long spilledBytes = 0;
+        for (Map.Entry<String, List<EmployeeRecord>> entry : departmentData.entrySet()) {
+            List<EmployeeRecord> records = entry.getValue();
+            if (records.isEmpty()) {
+                continue;
+            }
+            runSorter.sort(records);
+            for (EmployeeRecord record : records) {
+                spilledBytes += estimate(record);
+            }
+            run.put(entry.getKey(), records);
+            // Новый список, а не clear(): у очищенного ArrayList остаётся прежний массив
+            entry.setValue(new ArrayList<>());
+        }
+        if (!run.isEmpty()) {
+            runs.add(RunFile.write(directory.resolve("run-" + runs.size() + ".bin"), run));
+            logger.info("Spilled {} departments to run {} ({} bytes estimated)", run.size(), runs.size(), spilledBytes);
+        }
+        estimatedBytes -= spilledBytes;
+        // Если в памяти остались в основном ожидающие сотрудники, следующий сброс откладывается, чтобы не писать крошечные файлы
+        spillAt = Math.max(budgetBytes, estimatedBytes + budgetBytes / 2);
+    }
+
+    private static long estimate(EmployeeRecord record) {
+        return RECORD_OVERHEAD + record.name().length();
+    }
+
+    // Слияние по куче голов источников; при равенстве выигрывает источник с меньшим номером, поэтому порядок устойчив
+    public static final class Records implements Iterator<EmployeeRecord>, Closeable {
+        private final PriorityQueue<Head> heads;
+        private final List<RunFile.RecordCursor> cursors = new ArrayList<>();
+        private int sources;
+
+        private Records(Comparator<EmployeeRecord> comparator) {
+            this.heads = new PriorityQueue<>((a, b) -> {
+                int comparison = comparator.compare(a.record, b.record);
+                return comparison != 0 ? comparison : Integer.compare(a.source, b.source);
+            });
+        }
+
+        private void add(Iterator<EmployeeRecord> source) {
+            if (source instanceof RunFile.RecordCursor cursor) {
+                cursors.add(cursor);
+            }
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), sources, source));
+            }
+            sources++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public EmployeeRecord next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            EmployeeRecord record = head.record;
+            if (head.iterator.hasNext()) {
+                heads.add(new Head(head.iterator.next(), head.source, head.iterator));
+            }
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (RunFile.RecordCursor cursor : cursors) {
+                cursor.close();
+            }
+            heads.clear();
+        }
+    }
+
+    private static class Head {
+        private final EmployeeRecord record;
+        private final int source;
+        private final Iterator<EmployeeRecord> iterator;
+
+        private Head(EmployeeRecord record, int source, Iterator<EmployeeRecord> iterator) {
+            this.record = record;
+            this.source = source;
+            this.iterator = iterator;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.spill;
+
+import com.example.model.EmployeeRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Один сброс на диск: отделы подряд, для каждого известны смещение и число записей.
+// Отдел читается отдельным потоком со своего смещения, поэтому при слиянии открыто по одному потоку на сброс.
+final class RunFile {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final Map<String, Segment> segments = new HashMap<>();
+
+    private RunFile(Path file) {
+        this.file = file;
+    }
+
+    static RunFile write(Path file, Map<String, List<EmployeeRecord>> departments) throws IOException {
+        RunFile run = new RunFile(file);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            for (Map.Entry<String, List<EmployeeRecord>> entry : departments.entrySet()) {
+                List<EmployeeRecord> records = entry.getValue();
+                if (records.isEmpty()) {
+                    continue;
+                }
+                run.segments.put(entry.getKey(), new Segment(out.size(), records.size()));
+                for (EmployeeRecord record : records) {
+                    writeRecord(out, record);
+                }
+            }
+        }
+        return run;
+    }
+
+    boolean contains(String department) {
+        return segments.containsKey(department);
+    }
+
+    Iterable<String> departments() {
+        return segments.keySet();
+    }
+
+    // Записи отдела в порядке сброса; поток закрывается после последней записи или через close()
+    RecordCursor open(String department) throws IOException {
+        Segment segment = segments.get(department);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(segment.offset);
+        return new RecordCursor(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE), segment.count);
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    // Части живут только в пределах запуска, поэтому ключи ID пишутся как есть, без текста из таблицы EmployeeId
+    private static void writeRecord(DataOutputStream out, EmployeeRecord record) throws IOException {
+        out.writeBoolean(record.isManager());
+        out.writeLong(record.id());
+        out.writeLong(record.salary());
+        out.writeLong(record.managerId());
+        writeString(out, record.name());
+        out.writeBoolean(record.rawSalaryText() != null);
+        if (record.rawSalaryText() != null) {
+            writeString(out, record.rawSalaryText());
+        }
+        if (record.isManager()) {
+            writeString(out, record.department());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class Segment {
+        private final long offset;
+        private final int count;
+
+        private Segment(long offset, int count) {
+            this.offset = offset;
+            this.count = count;
+        }
+    }
+
+    static final class RecordCursor implements Iterator<EmployeeRecord>, AutoCloseable {
+        private final DataInputStream in;
+        private int remaining;
+
+        private RecordCursor(InputStream in, int count) {
+            this.in = new DataInputStream(in);
+            this.remaining = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public EmployeeRecord next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                boolean manager = in.readBoolean();
+                long id = in.readLong();
+                long salary = in.readLong();
+                long managerId = in.readLong();
+                String name = readString(in);
+                String salaryText = in.readBoolean() ? readString(in) : null;
+                EmployeeRecord record = manager
+                        ? EmployeeRecord.manager(id, name, salary, salaryText, readString(in))
+                        : EmployeeRecord.employee(id, name, salary, salaryText, managerId);
+                if (--remaining == 0) {
+                    in.close();
+                }
+                return record;
+            } catch (EOFException e) {
+                throw new UncheckedIOException(new IOException("Spill run ended early", e));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
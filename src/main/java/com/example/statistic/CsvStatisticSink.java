@@ -0,0 +1,77 @@
+package com.example.statistic;
+
+import com.example.model.Salary;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Строка собирается в переиспользуемый буфер и уходит в Writer одним вызовом; числа пишутся в буфер без String.format
+public final class CsvStatisticSink implements StatisticSink {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder(128);
+    private char[] chars = new char[128];
+    private int fields;
+
+    public CsvStatisticSink(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void header(String[] columns) throws IOException {
+        for (String column : columns) {
+            text(column);
+        }
+        endRow();
+    }
+
+    @Override
+    public void text(String value) throws IOException {
+        separate();
+        if (value != null) {
+            row.append(value);
+        }
+    }
+
+    @Override
+    public void amount(long minorUnits) throws IOException {
+        separate();
+        Salary.appendFixed(row, minorUnits);
+    }
+
+    @Override
+    public void number(long value) throws IOException {
+        separate();
+        row.append(value);
+    }
+
+    @Override
+    public void decimal(CharSequence value) throws IOException {
+        separate();
+        row.append(value);
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        row.append(LINE_SEPARATOR);
+        if (chars.length < row.length()) {
+            chars = new char[Math.max(row.length(), chars.length * 2)];
+        }
+        row.getChars(0, row.length(), chars, 0);
+        out.write(chars, 0, row.length());
+        row.setLength(0);
+        fields = 0;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void separate() {
+        if (fields++ > 0) {
+            row.append(',');
+        }
+    }
+}
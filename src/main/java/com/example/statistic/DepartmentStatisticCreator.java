@@ -3,144 +3,247 @@ package com.example.statistic;
 import com.example.enums.AppConstants;
 import com.example.logging.DataValidLogger;
 import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+import com.example.model.Salary;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 
 public class DepartmentStatisticCreator implements StatisticCreator {
 
     private static final FileErrorLogger errorLogger = new FileErrorLogger();
     private static final DataValidLogger errorDataLogger = new DataValidLogger();
+    private static final String[] COLUMNS = {"department", "min", "max", "mid"};
+    private static final String[] QUANTILE_COLUMNS = {"department", "min", "max", "mid", "median", "p90", "p99"};
+    private static final String[] ROLLUP_COLUMNS = {"level", "department", "manager", "min", "max", "mid", "headcount", "payroll"};
+    private static final String[] ROLLUP_QUANTILE_COLUMNS = {"level", "department", "manager", "min", "max", "mid", "median", "p90", "p99", "headcount", "payroll"};
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    // Относительная точность квантилей; 0 — колонки квантилей не выводятся
+    private final double quantileAccuracy;
+    private final String format;
+
+    public DepartmentStatisticCreator() {
+        this(0);
+    }
+
+    public DepartmentStatisticCreator(double quantileAccuracy) {
+        this(quantileAccuracy, AppConstants.FORMAT_CSV.getValue());
+    }
+
+    public DepartmentStatisticCreator(double quantileAccuracy, String format) {
+        this.quantileAccuracy = quantileAccuracy;
+        this.format = format;
+    }
+
+    // Пустая статистика отдела в нужной конфигурации: со скетчем, если выводятся квантили
+    public SalaryStatistic newStatistic() {
+        return quantileAccuracy > 0 ? new SalaryStatistic(new QuantileSketch(quantileAccuracy)) : new SalaryStatistic();
+    }
 
     @Override
-    public void createStatistic(Map<String, List<String[]>> departmentData, String output, String outputPath) throws IOException {
+    public void createStatistic(Map<String, List<EmployeeRecord>> departmentData, String output, String outputPath) throws IOException {
         if (departmentData == null || departmentData.isEmpty()) {
             errorLogger.logError(departmentData.toString(), "No department data available for statistic creation");
             return;
         }
 
-        List<Map.Entry<String, List<String[]>>> sortedEntries = new ArrayList<>(departmentData.entrySet());
+        List<Map.Entry<String, List<EmployeeRecord>>> sortedEntries = new ArrayList<>(departmentData.entrySet());
         sortedEntries.sort(Map.Entry.comparingByKey());
 
-        List<String> stats = new ArrayList<>();
-        stats.add("department,min,max,mid");
-
-        for (Map.Entry<String, List<String[]>> entry : sortedEntries) {
-            List<Double> salaries = collectSalaries(entry);
-            StatisticResult result = calculateStatistics(salaries, entry.getKey());
-            stats.add(String.format("%s,%.2f,%.2f,%.2f", result.department(), result.min(), result.max(), result.mid()));
-        }
+        writeStatistics(sink -> {
+            sink.header(columns());
+            for (Map.Entry<String, List<EmployeeRecord>> entry : sortedEntries) {
+                sink.text(entry.getKey());
+                writeValues(sink, collectSalaries(entry.getKey(), entry.getValue()));
+                sink.endRow();
+            }
+        }, output, outputPath);
+    }
 
-        writeStatistics(stats, output, outputPath != null ? Path.of(outputPath) : null);
+    // Строка статистики одного отдела; используется и инкрементальным режимом, который хранит строки между запусками
+    public String formatStatistic(String department, List<EmployeeRecord> values) {
+        return formatStatistic(department, collectSalaries(department, values));
     }
 
-    private List<Double> collectSalaries(Map.Entry<String, List<String[]>> entry) {
-        List<Double> salaries = new ArrayList<>();
-        String department = entry.getKey();
-        List<String[]> values = entry.getValue();
+    // Та же строка по статистике, накопленной при маршрутизации, без списка сотрудников
+    // Все значения в копейках: min и max выводятся как есть, среднее округляется вверх до копейки целочисленно
+    public String formatStatistic(String department, SalaryStatistic statistic) {
+        boolean empty = statistic.count() == 0;
+        StringBuilder line = new StringBuilder(department).append(',');
+        Salary.appendFixed(line, empty ? 0 : statistic.min()).append(',');
+        Salary.appendFixed(line, empty ? 0 : statistic.max()).append(',');
+        Salary.appendFixed(line, empty ? 0 : Salary.ceilMean(statistic.sum(), statistic.count()));
+        if (quantileAccuracy > 0) {
+            for (double q : QUANTILES) {
+                Salary.appendFixed(line.append(','), (long) Math.ceil(statistic.quantile(q)));
+            }
+        }
+        return line.toString();
+    }
 
-        if (values == null || values.isEmpty()) {
-            errorDataLogger.logDataValidation("No data available for department: " + department);
-            return salaries;
+    // Статистика, собранная при маршрутизации: отделы выводятся по имени, повторного прохода по спискам нет
+    public void createStatistic(SortedMap<String, SalaryStatistic> statistics, String output, String outputPath) throws IOException {
+        if (statistics.isEmpty()) {
+            errorLogger.logError(statistics.toString(), "No department data available for statistic creation");
+            return;
         }
 
-        for (String[] fields : values) {
-            if (isManager(fields)) {
-                continue;
+        writeStatistics(sink -> {
+            sink.header(columns());
+            for (Map.Entry<String, SalaryStatistic> entry : statistics.entrySet()) {
+                sink.text(entry.getKey());
+                writeValues(sink, entry.getValue());
+                sink.endRow();
             }
-            Double salary = parseAndValidateSalary(fields, department);
-            if (salary != null) {
-                salaries.add(salary);
+        }, output, outputPath);
+    }
+
+    // Свод по уровням: строка отдела, за ней строки его менеджеров по ID, в конце итог по компании.
+    // К колонкам отдела добавляются число сотрудников и фонд оплаты
+    public void createStatistic(StatisticRollup rollup, String output, String outputPath) throws IOException {
+        if (rollup.departments().isEmpty()) {
+            errorLogger.logError(rollup.departments().toString(), "No department data available for statistic creation");
+            return;
+        }
+
+        writeStatistics(sink -> {
+            sink.header(rollupColumns());
+            for (Map.Entry<String, SalaryStatistic> department : rollup.departments().entrySet()) {
+                writeRollup(sink, "department", department.getKey(), department.getValue());
+                for (Map.Entry<Long, SalaryStatistic> manager : rollup.managers(department.getKey()).entrySet()) {
+                    sink.text("manager");
+                    sink.text(department.getKey());
+                    if (manager.getKey() >= 0) {
+                        sink.number(manager.getKey());
+                    } else {
+                        sink.text(EmployeeId.text(manager.getKey()));
+                    }
+                    writeTotals(sink, manager.getValue());
+                }
             }
+            writeRollup(sink, "total", null, rollup.total());
+        }, output, outputPath);
+    }
+
+    // Готовые строки отделов из кэша инкрементального режима: колонки разбираются по запятым, числа выводятся как есть
+    public void writeStatistics(SortedMap<String, String> linesByDepartment, String output, String outputPath) throws IOException {
+        if (linesByDepartment.isEmpty()) {
+            errorLogger.logError(linesByDepartment.toString(), "No department data available for statistic creation");
+            return;
         }
-        return salaries;
+
+        writeStatistics(sink -> {
+            sink.header(columns());
+            for (String line : linesByDepartment.values()) {
+                int end = line.indexOf(',');
+                sink.text(line.substring(0, end));
+                while (end < line.length()) {
+                    int start = end + 1;
+                    end = line.indexOf(',', start);
+                    if (end < 0) {
+                        end = line.length();
+                    }
+                    sink.decimal(line.subSequence(start, end));
+                }
+                sink.endRow();
+            }
+        }, output, outputPath);
     }
 
-    private Double parseAndValidateSalary(String[] fields, String department) {
-        String salaryStr = fields[3];
-        if (salaryStr == null || salaryStr.trim().isEmpty()) {
-            errorDataLogger.logDataValidation("Empty salary field for department: " + department);
-            return null;
+    private SalaryStatistic collectSalaries(String department, List<EmployeeRecord> values) {
+        SalaryStatistic statistic = newStatistic();
+
+        if (values == null || values.isEmpty()) {
+            errorDataLogger.logDataValidation("No data available for department: " + department);
+            return statistic;
         }
 
-        try {
-            double salaryValue = Double.parseDouble(salaryStr.trim());
-            return salaryValue;
-        } catch (NumberFormatException e) {
-            errorLogger.logError(salaryStr, "Invalid salary format for department: " + department + " - " + e.getMessage());
-            return null;
+        for (EmployeeRecord record : values) {
+            if (!record.isManager()) {
+                statistic.add(record.salary());
+            }
         }
+        return statistic;
     }
 
-    private boolean isManager(String[] fields) {
-        return AppConstants.MANAGER_ROLE.getValue().equals(fields[0].trim());
+    private String[] columns() {
+        return quantileAccuracy > 0 ? QUANTILE_COLUMNS : COLUMNS;
     }
 
-    private StatisticResult calculateStatistics(List<Double> salaries, String department) {
-        double min = salaries.isEmpty() ? 0.0 : Collections.min(salaries);
-        double max = salaries.isEmpty() ? 0.0 : Collections.max(salaries);
-        double sum = salaries.stream().mapToDouble(Double::doubleValue).sum();
-        double mid = salaries.isEmpty() ? 0.0 : sum / salaries.size();
+    private String[] rollupColumns() {
+        return quantileAccuracy > 0 ? ROLLUP_QUANTILE_COLUMNS : ROLLUP_COLUMNS;
+    }
 
-        return new StatisticResult(
-                department,
-                roundSalary(min),
-                roundSalary(max),
-                roundSalary(mid)
-        );
+    private void writeRollup(StatisticSink sink, String level, String department, SalaryStatistic statistic) throws IOException {
+        sink.text(level);
+        sink.text(department);
+        sink.text(null);
+        writeTotals(sink, statistic);
     }
 
-    private double roundSalary(double value) {
-        return Math.ceil(value * 100) / 100;
+    private void writeTotals(StatisticSink sink, SalaryStatistic statistic) throws IOException {
+        writeValues(sink, statistic);
+        sink.number(statistic.count());
+        sink.amount(statistic.sum());
+        sink.endRow();
     }
 
-    private void writeStatistics(List<String> stats, String output, Path outputPath) throws IOException {
-        if (AppConstants.DEFAULT_OUTPUT.getValue().equals(output)) {
-            stats.forEach(System.out::println); // Вывод в консоль при дефолтном значении
+    // Те же значения, что и в formatStatistic, но прямо в приёмник
+    private void writeValues(StatisticSink sink, SalaryStatistic statistic) throws IOException {
+        boolean empty = statistic.count() == 0;
+        sink.amount(empty ? 0 : statistic.min());
+        sink.amount(empty ? 0 : statistic.max());
+        sink.amount(empty ? 0 : Salary.ceilMean(statistic.sum(), statistic.count()));
+        if (quantileAccuracy > 0) {
+            for (double q : QUANTILES) {
+                sink.amount((long) Math.ceil(statistic.quantile(q)));
+            }
+        }
+    }
+
+    // Все строки идут через один буферизованный Writer; если файл записать не удалось, те же строки выводятся в консоль
+    private void writeStatistics(Rows rows, String output, String outputPath) throws IOException {
+        if (!AppConstants.OUTPUT_FILE.getValue().equals(output) || outputPath == null) {
+            writeRows(rows, new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE));
             return;
         }
-        if (AppConstants.OUTPUT_FILE.getValue().equals(output) && outputPath != null) {
-            ensureOutputDirectoryExists(outputPath);
-            try {
-                Files.write(outputPath, stats, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            } catch (IOException e) {
-                errorDataLogger.logDataValidation("Failed to write statistics to file %s: %s. Switching to console output.", outputPath, e.getMessage());
-                stats.forEach(System.out::println);
-                throw e;
-            }
-        } else {
-            stats.forEach(System.out::println);
+        Path path = Path.of(outputPath);
+        ensureOutputDirectoryExists(path);
+        try (Writer writer = Files.newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeRows(rows, writer);
+        } catch (IOException e) {
+            errorDataLogger.logDataValidation("Failed to write statistics to file %s: %s. Switching to console output.", path, e.getMessage());
+            writeRows(rows, new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE));
+            throw e;
         }
     }
 
+    private void writeRows(Rows rows, Writer writer) throws IOException {
+        StatisticSink sink = AppConstants.FORMAT_JSON.getValue().equals(format) ? new JsonStatisticSink(writer) : new CsvStatisticSink(writer);
+        rows.writeTo(sink);
+        sink.finish();
+    }
+
     private void ensureOutputDirectoryExists(Path outputPath) throws IOException {
         if (!Files.exists(outputPath.getParent())) {
             Files.createDirectories(outputPath.getParent());
         }
     }
 
-    private static class StatisticResult {
-        private final String department;
-        private final double min;
-        private final double max;
-        private final double mid;
-
-        public StatisticResult(String department, double min, double max, double mid) {
-            this.department = department;
-            this.min = min;
-            this.max = max;
-            this.mid = mid;
-        }
-
-        public String department() { return department; }
-        public double min() { return min; }
-        public double max() { return max; }
-        public double mid() { return mid; }
+    @FunctionalInterface
+    private interface Rows {
+        void writeTo(StatisticSink sink) throws IOException;
     }
-}
\ No newline at end of file
+}
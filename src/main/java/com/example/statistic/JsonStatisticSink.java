@@ -0,0 +1,106 @@
+package com.example.statistic;
+
+import com.example.model.Salary;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Массив объектов, по объекту на строку, ключи — имена колонок: [{"department": "HR", "min": 1000.00, ...}, ...].
+// Суммы выводятся числами с двумя знаками, отсутствующие значения — null
+public final class JsonStatisticSink implements StatisticSink {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder(256);
+    private char[] chars = new char[256];
+    private String[] keys = new String[0];
+    private int fields;
+    private long rows;
+
+    public JsonStatisticSink(Writer out) {
+        this.out = out;
+    }
+
+    // Ключи с экранированием и двоеточием готовятся один раз
+    @Override
+    public void header(String[] columns) throws IOException {
+        keys = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            StringBuilder key = new StringBuilder();
+            appendString(key, columns[i]);
+            keys[i] = key.append(": ").toString();
+        }
+        out.write('[');
+    }
+
+    @Override
+    public void text(String value) throws IOException {
+        if (value == null) {
+            key().append("null");
+        } else {
+            appendString(key(), value);
+        }
+    }
+
+    @Override
+    public void amount(long minorUnits) throws IOException {
+        Salary.appendFixed(key(), minorUnits);
+    }
+
+    @Override
+    public void number(long value) throws IOException {
+        key().append(value);
+    }
+
+    @Override
+    public void decimal(CharSequence value) throws IOException {
+        key().append(value);
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        row.append('}');
+        rows++;
+        if (chars.length < row.length()) {
+            chars = new char[Math.max(row.length(), chars.length * 2)];
+        }
+        row.getChars(0, row.length(), chars, 0);
+        out.write(chars, 0, row.length());
+        row.setLength(0);
+        fields = 0;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) {
+            out.write(LINE_SEPARATOR);
+        }
+        out.write(']');
+        out.write(LINE_SEPARATOR);
+        out.flush();
+    }
+
+    private StringBuilder key() {
+        if (fields > 0) {
+            row.append(", ");
+        } else {
+            row.append(rows == 0 ? "" : ",").append(LINE_SEPARATOR).append("  {");
+        }
+        return row.append(keys[fields++]);
+    }
+
+    private static void appendString(StringBuilder target, String value) {
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                target.append('\\').append(c);
+            } else if (c < 0x20) {
+                target.append(String.format("\\u%04x", (int) c));
+            } else {
+                target.append(c);
+            }
+        }
+        target.append('"');
+    }
+}
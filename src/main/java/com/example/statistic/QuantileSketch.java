@@ -0,0 +1,184 @@
+package com.example.statistic;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+// Логарифмическая гистограмма зарплат в копейках (схема DDSketch): значение v > 0 попадает в корзину ceil(log_gamma v),
+// gamma = (1 + a) / (1 - a), поэтому любая квантиль восстанавливается с относительной ошибкой не больше a.
+// Корзины хранятся плотным массивом между крайними индексами: при a = 1% диапазон от копейки до 10^9 рублей — около 1300 корзин.
+// Скетчи с одинаковой точностью складываются покорзинно, результат не зависит от порядка слияния.
+public final class QuantileSketch {
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void add(long value) {
+        if (value > 0) {
+            positive.add(index(value), 1);
+        } else if (value < 0) {
+            negative.add(index(-(double) value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy: " + relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    // Значение ранга floor(q * (count - 1)) в копейках; 0 для пустого скетча
+    public double quantile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) (q * (count - 1));
+        // Отрицательные значения идут от наибольшего модуля к наименьшему
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return -value(negative.offset + i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        return value(positive.offset + positive.counts.length - 1);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeDouble(relativeAccuracy);
+        out.writeLong(zeroCount);
+        out.writeLong(count);
+        positive.writeTo(out);
+        negative.writeTo(out);
+    }
+
+    public static QuantileSketch readFrom(DataInputStream in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch(in.readDouble());
+        sketch.zeroCount = in.readLong();
+        sketch.count = in.readLong();
+        sketch.positive.readFrom(in);
+        sketch.negative.readFrom(in);
+        return sketch;
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    // Середина корзины (gamma^(i-1), gamma^i] в смысле относительной ошибки
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private static final class Buckets {
+        private static final int INITIAL_SIZE = 64;
+
+        private long[] counts = new long[0];
+        private int offset;
+
+        private void add(int index, long n) {
+            ensureCapacity(index, index);
+            counts[index - offset] += n;
+        }
+
+        private void merge(Buckets other) {
+            if (other.counts.length == 0) {
+                return;
+            }
+            ensureCapacity(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+
+        // Пишутся только корзины между первой и последней непустой, запас массива на диск не попадает
+        private void writeTo(DataOutputStream out) throws IOException {
+            int low = 0;
+            int high = counts.length - 1;
+            while (low <= high && counts[low] == 0) {
+                low++;
+            }
+            while (high >= low && counts[high] == 0) {
+                high--;
+            }
+            out.writeInt(offset + low);
+            out.writeInt(high - low + 1);
+            for (int i = low; i <= high; i++) {
+                out.writeLong(counts[i]);
+            }
+        }
+
+        private void readFrom(DataInputStream in) throws IOException {
+            offset = in.readInt();
+            counts = new long[in.readInt()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = in.readLong();
+            }
+        }
+
+        // Массив растёт с запасом в сторону нового индекса, чтобы соседние значения не вызывали копирование
+        private void ensureCapacity(int low, int high) {
+            if (counts.length == 0) {
+                int size = Math.max(INITIAL_SIZE, high - low + 1);
+                counts = new long[size];
+                offset = low - (size - (high - low + 1)) / 2;
+                return;
+            }
+            int currentHigh = offset + counts.length - 1;
+            if (low >= offset && high <= currentHigh) {
+                return;
+            }
+            int newLow = Math.min(low, offset);
+            int newHigh = Math.max(high, currentHigh);
+            int slack = counts.length;
+            if (newLow < offset) {
+                newLow -= slack;
+            }
+            if (newHigh > currentHigh) {
+                newHigh += slack;
+            }
+            long[] grown = new long[newHigh - newLow + 1];
+            System.arraycopy(counts, 0, grown, offset - newLow, counts.length);
+            counts = grown;
+            offset = newLow;
+        }
+    }
+}
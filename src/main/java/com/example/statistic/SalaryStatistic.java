@@ -0,0 +1,93 @@
+package com.example.statistic;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+// Статистика отдела за один проход без упаковки: число, минимум, максимум и сумма зарплат в копейках.
+// Сумма в long точна и не зависит от порядка, поэтому компенсированное суммирование не нужно;
+// переполнение возможно лишь после ~9·10^16 копеек на отдел.
+// Со скетчем дополнительно доступны квантили; статистики разных частей данных складываются через merge.
+public final class SalaryStatistic {
+    private final QuantileSketch sketch;
+    private long count;
+    private long min;
+    private long max;
+    private long sum;
+
+    public SalaryStatistic() {
+        this(null);
+    }
+
+    public SalaryStatistic(QuantileSketch sketch) {
+        this.sketch = sketch;
+    }
+
+    public void add(long salary) {
+        if (count == 0 || salary < min) {
+            min = salary;
+        }
+        if (count == 0 || salary > max) {
+            max = salary;
+        }
+        sum += salary;
+        count++;
+        if (sketch != null) {
+            sketch.add(salary);
+        }
+    }
+
+    public void merge(SalaryStatistic other) {
+        if (other.count == 0) {
+            return;
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        sum += other.sum;
+        count += other.count;
+        if (sketch != null && other.sketch != null) {
+            sketch.merge(other.sketch);
+        }
+    }
+
+    public boolean hasQuantiles() {
+        return sketch != null;
+    }
+
+    // Оценка квантили в копейках, не выходящая за точные min и max
+    public double quantile(double q) {
+        if (sketch == null || count == 0) {
+            return 0;
+        }
+        return Math.max(min, Math.min(max, sketch.quantile(q)));
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(min);
+        out.writeLong(max);
+        out.writeLong(sum);
+        out.writeBoolean(sketch != null);
+        if (sketch != null) {
+            sketch.writeTo(out);
+        }
+    }
+
+    public static SalaryStatistic readFrom(DataInputStream in) throws IOException {
+        long count = in.readLong();
+        long min = in.readLong();
+        long max = in.readLong();
+        long sum = in.readLong();
+        SalaryStatistic statistic = new SalaryStatistic(in.readBoolean() ? QuantileSketch.readFrom(in) : null);
+        statistic.count = count;
+        statistic.min = min;
+        statistic.max = max;
+        statistic.sum = sum;
+        return statistic;
+    }
+
+    public long count() { return count; }
+    public long min() { return min; }
+    public long max() { return max; }
+    public long sum() { return sum; }
+}
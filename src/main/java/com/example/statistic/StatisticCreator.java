@@ -1,8 +1,10 @@
 package com.example.statistic;
 
+import com.example.model.EmployeeRecord;
+
 import java.util.List;
 import java.util.Map;
 
 public interface StatisticCreator {
-    void createStatistic(Map<String, List<String[]>> departmentData, String output, String outputPath)throws Exception;
+    void createStatistic(Map<String, List<EmployeeRecord>> departmentData, String output, String outputPath)throws Exception;
 }
@@ -0,0 +1,66 @@
+package com.example.statistic;
+
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// Свод статистики по уровням менеджер -> отдел -> компания. Копится только статистика менеджеров,
+// отделы и итог получаются слиянием уже собранных статистик, повторного прохода по данным нет.
+// Менеджер без сотрудников попадает в свод с пустой статистикой, как и отдел без сотрудников.
+public final class StatisticRollup {
+    private final SortedMap<String, SalaryStatistic> departments = new TreeMap<>();
+    private final Map<String, SortedMap<Long, SalaryStatistic>> managersByDepartment = new HashMap<>();
+    private final SalaryStatistic total;
+
+    // managerDepartments — принятые объявления менеджеров; статистика сотрудников без найденного менеджера в свод не входит
+    public StatisticRollup(Map<Long, String> managerDepartments, Map<Long, SalaryStatistic> managerStatistics, Supplier<SalaryStatistic> newStatistic) {
+        for (Map.Entry<Long, String> manager : managerDepartments.entrySet()) {
+            SalaryStatistic statistic = managerStatistics.get(manager.getKey());
+            if (statistic == null) {
+                statistic = newStatistic.get();
+            }
+            managersByDepartment.computeIfAbsent(manager.getValue(), k -> new TreeMap<>(EmployeeId.ORDER)).put(manager.getKey(), statistic);
+            departments.computeIfAbsent(manager.getValue(), k -> newStatistic.get()).merge(statistic);
+        }
+        total = newStatistic.get();
+        for (SalaryStatistic department : departments.values()) {
+            total.merge(department);
+        }
+    }
+
+    // Для данных, уже разложенных по отделам (например, из снимка): один проход по спискам
+    public static StatisticRollup of(Map<String, List<EmployeeRecord>> departmentData, Supplier<SalaryStatistic> newStatistic) {
+        Map<Long, String> managerDepartments = new HashMap<>();
+        Map<Long, SalaryStatistic> managerStatistics = new HashMap<>();
+        for (Map.Entry<String, List<EmployeeRecord>> entry : departmentData.entrySet()) {
+            for (EmployeeRecord record : entry.getValue()) {
+                if (record.isManager()) {
+                    managerDepartments.put(record.id(), entry.getKey());
+                } else {
+                    managerStatistics.computeIfAbsent(record.managerId(), k -> newStatistic.get()).add(record.salary());
+                }
+            }
+        }
+        return new StatisticRollup(managerDepartments, managerStatistics, newStatistic);
+    }
+
+    public SortedMap<String, SalaryStatistic> departments() {
+        return Collections.unmodifiableSortedMap(departments);
+    }
+
+    public SortedMap<Long, SalaryStatistic> managers(String department) {
+        SortedMap<Long, SalaryStatistic> managers = managersByDepartment.get(department);
+        return managers != null ? Collections.unmodifiableSortedMap(managers) : Collections.emptySortedMap();
+    }
+
+    public SalaryStatistic total() {
+        return total;
+    }
+}
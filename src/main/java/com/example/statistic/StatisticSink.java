@@ -0,0 +1,24 @@
+package com.example.statistic;
+
+import java.io.IOException;
+
+// Приёмник строк статистики: значения передаются по одному и пишутся в общий буферизованный Writer без промежуточных строк.
+// Строка начинается с первого значения после header или endRow; суммы передаются в копейках
+public interface StatisticSink {
+    void header(String[] columns) throws IOException;
+
+    // null — значение отсутствует, например отдел в итоговой строке
+    void text(String value) throws IOException;
+
+    void amount(long minorUnits) throws IOException;
+
+    void number(long value) throws IOException;
+
+    // Уже отформатированное число, например из строк статистики инкрементального кэша
+    void decimal(CharSequence value) throws IOException;
+
+    void endRow() throws IOException;
+
+    // Конец вывода; Writer не закрывается, этим занимается вызывающий
+    void finish() throws IOException;
+}
@@ -70,6 +70,26 @@ public class ApplicationConfigTest {
         verifyNoMoreInteractions(mockLogger);
     }
 
+    @Test
+    void testFromArgsWithSortKeyList() {
+        String[] args = {"--sort=salary,name", "--order=desc,asc"};
+        ApplicationConfig config = ApplicationConfig.fromArgs(args);
+
+        assertEquals("salary,name", config.getSortBy());
+        assertEquals("desc,asc", config.getSortOrder());
+        verifyNoInteractions(mockLogger);
+    }
+
+    @Test
+    void testFromArgsWithInvalidKeyInSortList() {
+        String[] args = {"--sort=salary,age", "--stat"};
+        ApplicationConfig config = ApplicationConfig.fromArgs(args);
+
+        assertNull(config.getSortBy(), "SortBy should be null when any key in the list is invalid");
+        verify(mockLogger).logDataValidation("Ignoring invalid sort value '{}'. Valid values are: {}", "salary,age", Arrays.toString(AppConstants.getValidSortValues()));
+        verifyNoMoreInteractions(mockLogger);
+    }
+
     @Test
     void testValidateWithMissingOutputPath() {
         String[] args = {"--output=file"};
@@ -115,7 +135,7 @@ public class ApplicationConfigTest {
     @Test
     void testToString() {
         ApplicationConfig config = new ApplicationConfig("salary", "asc", true, "file", "/path");
-        String expected = "ApplicationConfig{sortBy='salary', sortOrder='asc', stat=true, output='file', outputPath='/path'}";
+        String expected = "ApplicationConfig{sortBy='salary', sortOrder='asc', stat=true, statOnly=false, rollup=false, output='file', outputPath='/path', format='csv', readerMode='text', threads=1, chunkSizeMb=64, incremental=false, departmentThreads=1, writeConcurrency=2, top=0, parallelSortThreshold=100000, collation='null', memoryBudgetMb=0, quantiles=false, quantileErrorPercent=1.0, snapshot=false, watch=false, debounceMillis=500}";
         assertEquals(expected, config.toString());
     }
 
@@ -132,4 +152,39 @@ public class ApplicationConfigTest {
         assertEquals("/path/to/output", config.getOutputPath(), "Output path should be '/path/to/output'");
         assertDoesNotThrow(config::validate, "Validation should not throw an exception for valid configuration");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFromArgsWithDepartmentConcurrency() {
+        String[] args = {"--department-threads=8", "--write-concurrency=0"};
+        ApplicationConfig config = ApplicationConfig.fromArgs(args);
+
+        assertEquals(8, config.getDepartmentThreads(), "Department threads should be parsed");
+        assertEquals(2, config.getWriteConcurrency(), "Invalid write concurrency should keep the default");
+        verify(mockLogger).logDataValidation("Ignoring invalid write-concurrency value '%s'. Expected a positive integer.", "0");
+    }
+
+    @Test
+    void testShortWatchFlagEnablesWatching() {
+        ApplicationConfig config = ApplicationConfig.fromArgs(new String[]{"-w"});
+
+        assertTrue(config.isWatch(), "Bare -w should enable watch mode");
+        assertTrue(config.isIncremental(), "Watch mode is always incremental");
+        verify(mockLogger, never()).logDataValidation("Ignoring unknown parameter: '%s'", "-w");
+    }
+
+    @Test
+    void testOptionsIgnoredInIncrementalModeAreLogged() {
+        String message = "Ignoring %s in incremental mode: changed files are re-read one by one and departments are rebuilt from the cache.";
+        ApplicationConfig.fromArgs(new String[]{"--watch", "--threads=4", "--department-threads=2", "--memory-budget=64", "--snapshot"});
+
+        verify(mockLogger).logDataValidation(message, "--threads");
+        verify(mockLogger).logDataValidation(message, "--department-threads");
+        verify(mockLogger).logDataValidation(message, "--memory-budget");
+        verify(mockLogger).logDataValidation(message, "--snapshot");
+
+        clearInvocations(mockLogger);
+        ApplicationConfig.fromArgs(new String[]{"--threads=4", "--snapshot"});
+        ApplicationConfig.fromArgs(new String[]{"--incremental", "--threads=1"});
+        verifyNoInteractions(mockLogger);
+    }
+}
@@ -5,9 +5,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +59,40 @@ public class FileReaderTest {
         assertTrue(lines.contains("line3, value3"), "Should contain line3");
     }
 
+    @Test
+    void testReadSbFilesStreamsLinesToHandler() throws IOException {
+        // Подготовка: Создаём тестовый файл
+        Path file = tempDir.resolve("stream.sb");
+        Files.writeString(file, "line1, value1\nline2, value2\n");
+
+        // Выполнение
+        List<String> received = new ArrayList<>();
+        FileReader.readSbFiles(tempDir, received::add);
+
+        // Проверка
+        assertEquals(List.of("line1, value1", "line2, value2"), received, "Handler should receive every line in file order");
+    }
+
+    @Test
+    void testReadSbFilesDecompressesGzipInput() throws IOException {
+        // Подготовка: Создаём сжатый файл рядом с обычным и посторонний файл
+        Path plain = tempDir.resolve("plain.sb");
+        Path compressed = tempDir.resolve("packed.sb.gz");
+        Files.writeString(plain, "line1, value1");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            out.write("line2, value2\nline3, value3\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Files.writeString(tempDir.resolve("other.gz"), "ignored");
+
+        // Выполнение
+        List<String> lines = FileReader.readSbFiles(tempDir);
+
+        // Проверка
+        assertEquals(3, lines.size(), "Should read .sb and .sb.gz files only");
+        assertTrue(lines.contains("line2, value2"), "Should contain decompressed line");
+        assertTrue(lines.contains("line3, value3"), "Should contain decompressed line");
+    }
+
     @Test
     void testReadSbFilesWithNonExistentDirectory() {
         // Подготовка: Используем несуществующий путь
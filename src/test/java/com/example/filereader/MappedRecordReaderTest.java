@@ -0,0 +1,133 @@
+package com.example.filereader;
+
+import com.example.logging.DataError;
+import com.example.model.EmployeeRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MappedRecordReaderTest {
+
+    private static final String CONTENT = "Manager,1,Jane Smith,5000,HR\r\n"
+            + "  Employee , 101 , John Doe , 3000.114 , 1  \n"
+            + "\n"
+            + "Employee,102,Emily Johnson,abc,1\n"
+            + "Employee,103,Chris White,-2900,1\n"
+            + "Intern,104,Anna Taylor,3100,1\n"
+            + "Employee,105,Robert Black,4000.5,1,,\n"
+            + "Employee,106,Last Line,1200,1";
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("mapped-", ".sb");
+        Files.writeString(file, CONTENT);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testMatchesTextReaderRecordsAndErrors() throws IOException {
+        DataError textErrors = Mockito.mock(DataError.class);
+        DataError mappedErrors = Mockito.mock(DataError.class);
+        List<String> textRecords = new ArrayList<>();
+        List<String> mappedRecords = new ArrayList<>();
+
+        long textLines = new TextRecordReader(new RecordParser(textErrors)).read(file, (record, line) -> textRecords.add(record.toLine()));
+        // Маленькое окно, чтобы строки пересекали границы отображения
+        long mappedLines = new MappedRecordReader(mappedErrors, 16).read(file, (record, line) -> mappedRecords.add(record.toLine()));
+
+        assertEquals(8, mappedLines, "All lines should be counted");
+        assertEquals(textLines, mappedLines);
+        assertEquals(textRecords, mappedRecords, "Both readers should produce the same records");
+        verify(mappedErrors).logError("", "Invalid field count or null fields");
+        verify(mappedErrors).logError("Employee,102,Emily Johnson,abc,1", "Invalid salary format: abc");
+        verify(mappedErrors).logError("Employee,103,Chris White,-2900,1", "Non-positive salary: -2900");
+        verify(mappedErrors).logError("Intern,104,Anna Taylor,3100,1", "Unknown role: Intern");
+        verifyNoMoreInteractions(mappedErrors);
+    }
+
+    @Test
+    void testPassesLineOnlyForManagers() throws IOException {
+        List<String> lines = new ArrayList<>();
+        List<EmployeeRecord> records = new ArrayList<>();
+
+        new MappedRecordReader(Mockito.mock(DataError.class)).read(file, (record, line) -> {
+            records.add(record);
+            lines.add(line);
+        });
+
+        assertTrue(records.get(0).isManager());
+        assertEquals("Manager,1,Jane Smith,5000,HR", lines.get(0), "Manager line should be decoded without CR");
+        assertNull(lines.get(1), "Employee line is not decoded");
+        assertEquals(300011, records.get(1).salary(), "Third fraction digit should be rounded");
+    }
+
+    @Test
+    void testCompressedInputMatchesPlainFile() throws IOException {
+        Path compressed = Files.createTempFile("mapped-", ".sb.gz");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+                out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+            }
+            DataError plainErrors = Mockito.mock(DataError.class);
+            DataError compressedErrors = Mockito.mock(DataError.class);
+            List<String> plainRecords = new ArrayList<>();
+            List<String> compressedRecords = new ArrayList<>();
+
+            long plainLines = new MappedRecordReader(plainErrors).read(file, (record, line) -> plainRecords.add(record.toLine()));
+            // Маленький буфер, чтобы строки пересекали границы чтения из потока
+            long compressedLines = new MappedRecordReader(compressedErrors, 16).read(compressed, (record, line) -> compressedRecords.add(record.toLine()));
+
+            assertEquals(plainLines, compressedLines, "All lines should be counted");
+            assertEquals(plainRecords, compressedRecords, "Decompressed stream should produce the same records");
+            verify(compressedErrors, times(4)).logError(anyString(), anyString());
+        } finally {
+            Files.deleteIfExists(compressed);
+        }
+    }
+
+    @Test
+    void testLongBoundsMatchTextReader() throws IOException {
+        Path bounds = Files.createTempFile("mapped-bounds-", ".sb");
+        try {
+            Files.writeString(bounds, "Manager,-9223372036854775808,Min Boss,5000,HR\n"
+                    + "Employee,9223372036854775807,Max Id,3000,-9223372036854775808\n"
+                    + "Employee,9223372036854775808,Too Big,3000,1\n"
+                    + "Employee,-9223372036854775809,Too Small,3000,1\n"
+                    + "Employee,A-17,Text Id,2535.00,001\n");
+            DataError textErrors = Mockito.mock(DataError.class);
+            DataError mappedErrors = Mockito.mock(DataError.class);
+            List<String> textRecords = new ArrayList<>();
+            List<String> mappedRecords = new ArrayList<>();
+
+            new TextRecordReader(new RecordParser(textErrors)).read(bounds, (record, line) -> textRecords.add(record.toLine()));
+            new MappedRecordReader(mappedErrors).read(bounds, (record, line) -> mappedRecords.add(record.toLine()));
+
+            assertEquals(5, textRecords.size(), "IDs outside the long range or non-numeric should be kept as text");
+            assertEquals(textRecords, mappedRecords, "Both readers should accept the same boundary IDs");
+            assertEquals("Employee,9223372036854775808,Too Big,3000,1", mappedRecords.get(2));
+            assertEquals("Employee,A-17,Text Id,2535.00,001", mappedRecords.get(4));
+            verifyNoInteractions(textErrors, mappedErrors);
+        } finally {
+            Files.deleteIfExists(bounds);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.filereader;
+
+import com.example.logging.DataError;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelFileReaderTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("parallel-files-");
+        for (int f = 0; f < 6; f++) {
+            StringBuilder content = new StringBuilder();
+            content.append("Manager,").append(f).append(",Boss ").append(f).append(",5000,Dept").append(f).append('\n');
+            for (int e = 0; e < 50; e++) {
+                content.append("Employee,").append(f * 100 + e).append(",Name ").append(e).append(',')
+                        .append(e % 7 == 0 ? "bad" : String.valueOf(1000 + e)).append(',').append((f + 1) % 6).append('\n');
+            }
+            Files.writeString(tempDir.resolve("part" + f + ".sb"), content);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void testParallelReadMatchesSequentialOrder() throws IOException {
+        List<String> sequential = new ArrayList<>();
+        DataError sequentialErrors = (line, reason) -> sequential.add("ERROR " + reason + " " + line);
+        long sequentialLines = FileReader.readSbFiles(tempDir, new TextRecordReader(new RecordParser(sequentialErrors)),
+                (record, line) -> sequential.add(record.toLine() + (record.isManager() ? " " + line : "")));
+
+        List<String> parallel = new ArrayList<>();
+        DataError parallelErrors = (line, reason) -> parallel.add("ERROR " + reason + " " + line);
+        long parallelLines = ParallelFileReader.readSbFiles(tempDir, 3, Long.MAX_VALUE, errorLog -> new TextRecordReader(new RecordParser(errorLog)),
+                (record, line) -> parallel.add(record.toLine() + (record.isManager() ? " " + line : "")), parallelErrors);
+
+        assertEquals(sequentialLines, parallelLines, "Line counts should match");
+        assertEquals(sequential, parallel, "Records and errors should be merged in directory order");
+    }
+
+    @Test
+    void testChunkedReadMatchesSequentialOrder() throws IOException {
+        List<String> sequential = new ArrayList<>();
+        DataError sequentialErrors = (line, reason) -> sequential.add("ERROR " + reason + " " + line);
+        long sequentialLines = FileReader.readSbFiles(tempDir, new MappedRecordReader(sequentialErrors),
+                (record, line) -> sequential.add(record.toLine() + (record.isManager() ? " " + line : "")));
+
+        // Диапазоны по ~200 байт: каждый файл режется на несколько частей
+        List<String> chunked = new ArrayList<>();
+        DataError chunkedErrors = (line, reason) -> chunked.add("ERROR " + reason + " " + line);
+        long chunkedLines = ParallelFileReader.readSbFiles(tempDir, 4, 200, errorLog -> new MappedRecordReader(errorLog),
+                (record, line) -> chunked.add(record.toLine() + (record.isManager() ? " " + line : "")), chunkedErrors);
+
+        assertEquals(sequentialLines, chunkedLines, "Line counts should match");
+        assertEquals(sequential, chunked, "Chunks should be merged in file order");
+    }
+
+    @Test
+    void testReadFailureKeepsRecordsBeforeErrorAsSequentialRead() throws IOException {
+        // Битый UTF-8 после ~16 КиБ корректных строк: чтение обрывается посреди файла
+        StringBuilder content = new StringBuilder("Manager,900,Broken Boss,5000,Broken\n");
+        for (int e = 0; e < 500; e++) {
+            content.append("Employee,").append(9000 + e).append(",Name ").append(e).append(",1000,900\n");
+        }
+        byte[] valid = content.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] broken = Arrays.copyOf(valid, valid.length + 1);
+        broken[valid.length] = (byte) 0xFF;
+        Files.write(tempDir.resolve("part3a.sb"), broken);
+
+        List<String> sequential = new ArrayList<>();
+        FileReader.readSbFiles(tempDir, new TextRecordReader(new RecordParser((line, reason) -> sequential.add("ERROR " + reason + " " + line))),
+                (record, line) -> sequential.add(record.toLine()));
+
+        List<String> parallel = new ArrayList<>();
+        ParallelFileReader.readSbFiles(tempDir, 3, Long.MAX_VALUE, errorLog -> new TextRecordReader(new RecordParser(errorLog)),
+                (record, line) -> parallel.add(record.toLine()), (line, reason) -> parallel.add("ERROR " + reason + " " + line));
+
+        assertTrue(sequential.stream().anyMatch(line -> line.contains("Broken Boss")), "Records before the error should be kept");
+        assertEquals(sequential, parallel, "Parallel read should keep the same part of the broken file");
+    }
+}
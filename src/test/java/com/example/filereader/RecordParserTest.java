@@ -0,0 +1,96 @@
+package com.example.filereader;
+
+import com.example.enums.Role;
+import com.example.logging.DataError;
+import com.example.model.EmployeeRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RecordParserTest {
+
+    private DataError errorLog;
+    private RecordParser parser;
+
+    @BeforeEach
+    void setUp() {
+        errorLog = Mockito.mock(DataError.class);
+        parser = new RecordParser(errorLog);
+    }
+
+    @Test
+    void testParseManager() throws IOException {
+        EmployeeRecord record = parser.parse(" Manager, 1 , Jane Smith ,5000, HR ");
+
+        assertNotNull(record, "Valid manager line should be parsed");
+        assertEquals(Role.MANAGER, record.role());
+        assertEquals(1, record.id());
+        assertEquals("Jane Smith", record.name());
+        assertEquals(500000, record.salary(), "Salary should be stored in minor units");
+        assertEquals("HR", record.department());
+        verifyNoInteractions(errorLog);
+    }
+
+    @Test
+    void testParseEmployee() throws IOException {
+        EmployeeRecord record = parser.parse("Employee,102,Emily Johnson,3100.5,1");
+
+        assertNotNull(record, "Valid employee line should be parsed");
+        assertEquals(Role.EMPLOYEE, record.role());
+        assertEquals(310050, record.salary());
+        assertEquals(1, record.managerId());
+        assertEquals("Employee,102,Emily Johnson,3100.5,1", record.toLine());
+    }
+
+    @Test
+    void testParseKeepsOriginalIdAndSalaryText() throws IOException {
+        EmployeeRecord manager = parser.parse("Manager,001,Jane Smith,2535.00,HR");
+        EmployeeRecord employee = parser.parse("Employee,A-17,John Doe,3000.114,001");
+
+        assertEquals("Manager,001,Jane Smith,2535.00,HR", manager.toLine(), "Leading zeros and trailing zeros should be kept");
+        assertEquals("Employee,A-17,John Doe,3000.114,001", employee.toLine(), "Non-numeric ID and extra decimals should be kept");
+        assertEquals(253500, manager.salary());
+        assertEquals(300011, employee.salary());
+        assertEquals(manager.id(), employee.managerId(), "Same ID text should give the same key");
+        assertNotEquals(1, manager.id(), "\"001\" and \"1\" should stay different IDs");
+        verifyNoInteractions(errorLog);
+    }
+
+    @Test
+    void testParseRejectsInvalidSalary() throws IOException {
+        assertNull(parser.parse("Employee,102,Emily Johnson,abc,1"));
+        verify(errorLog).logError("Employee,102,Emily Johnson,abc,1", "Invalid salary format: abc");
+
+        assertNull(parser.parse("Employee,103,Chris White,-2900,2"));
+        verify(errorLog).logError("Employee,103,Chris White,-2900,2", "Non-positive salary: -2900");
+    }
+
+    @Test
+    void testParseSalaryAsFixedPoint() throws IOException {
+        assertEquals(300011, parser.parse("Employee,102,Emily Johnson,3000.114,1").salary(), "Third decimal below 5 should be dropped");
+        assertEquals(300012, parser.parse("Employee,102,Emily Johnson,3000.115,1").salary(), "Third decimal of 5 should round up");
+
+        assertNull(parser.parse("Employee,104,Exp Form,1e3,1"), "Exponent notation should be rejected like the mmap reader does");
+        verify(errorLog).logError("Employee,104,Exp Form,1e3,1", "Invalid salary format: 1e3");
+    }
+
+    @Test
+    void testParseRejectsUnknownRoleAndFieldCount() throws IOException {
+        assertNull(parser.parse("Intern,1,Jane,100,1"));
+        verify(errorLog).logError("Intern,1,Jane,100,1", "Unknown role: Intern");
+
+        assertNull(parser.parse("Employee,1,Jane"));
+        verify(errorLog).logError("Employee,1,Jane", "Invalid field count or null fields");
+    }
+
+    @Test
+    void testParseRejectsEmptyDepartmentForManager() throws IOException {
+        assertNull(parser.parse("Manager,1,Jane Smith,5000, ,"));
+        verify(errorLog).logError("Manager,1,Jane Smith,5000, ,", "Empty department field for manager");
+    }
+}
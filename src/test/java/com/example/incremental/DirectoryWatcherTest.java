@@ -0,0 +1,84 @@
+package com.example.incremental;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectoryWatcherTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("test-watch-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testFilesWrittenTogetherArriveAsOneBatch() throws Exception {
+        List<Set<Path>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch firstBatch = new CountDownLatch(1);
+
+        Thread thread;
+        try (DirectoryWatcher watcher = new DirectoryWatcher(tempDir, 300)) {
+            thread = new Thread(() -> {
+                try {
+                    watcher.watch(batch -> {
+                        batches.add(batch);
+                        firstBatch.countDown();
+                    });
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            thread.start();
+
+            Files.writeString(tempDir.resolve("a.sb"), "Manager,1,Jane,5000,HR\n");
+            Files.writeString(tempDir.resolve("notes.txt"), "ignored");
+            Files.writeString(tempDir.resolve("b.sb"), "Employee,2,John,3000,1\n");
+
+            assertTrue(firstBatch.await(10, TimeUnit.SECONDS), "Watcher should report the change");
+        }
+        thread.join(5000);
+
+        assertEquals(1, batches.size(), "Events within the debounce window should be merged");
+        assertEquals(Set.of(tempDir.resolve("a.sb"), tempDir.resolve("b.sb")), batches.get(0), "Only .sb files should be reported");
+    }
+
+    @Test
+    void testWatchStopsWhenDirectoryIsDeleted() throws Exception {
+        Path watched = Files.createDirectory(tempDir.resolve("input"));
+        try (DirectoryWatcher watcher = new DirectoryWatcher(watched, 100)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    watcher.watch(batch -> { });
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            thread.start();
+
+            Files.delete(watched);
+            thread.join(10000);
+            assertFalse(thread.isAlive(), "Watcher should stop once the directory is gone");
+        }
+    }
+}
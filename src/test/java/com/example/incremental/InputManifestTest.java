@@ -0,0 +1,89 @@
+package com.example.incremental;
+
+import com.example.filereader.ParsedChunk;
+import com.example.model.EmployeeRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InputManifestTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("test-manifest-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() throws IOException {
+        Path file = tempDir.resolve("a.sb");
+        Files.writeString(file, "Manager,1,Jane,5000,HR\nEmployee,2,John,3000,1\n");
+        ParsedChunk chunk = new ParsedChunk();
+        chunk.onRecord(EmployeeRecord.manager(1, "Jane", 500000, "HR"), "Manager,1,Jane,5000,HR");
+        chunk.onRecord(EmployeeRecord.employee(2, "John", 300000, 1), null);
+        chunk.setLineCount(2);
+
+        FileFingerprint fingerprint = FileFingerprint.of(file, null);
+        TreeMap<String, String> stats = new TreeMap<>(Map.of("HR", "HR,3000.00,3000.00,3000.00"));
+        InputManifest manifest = new InputManifest("salary|asc|text", List.of(InputManifest.Entry.of("a.sb", fingerprint, chunk)), stats);
+        manifest.save(tempDir.resolve("manifest.bin"));
+
+        InputManifest loaded = InputManifest.load(tempDir.resolve("manifest.bin"));
+        assertEquals("salary|asc|text", loaded.getConfigSignature());
+        InputManifest.Entry entry = loaded.findEntry("a.sb");
+        assertNotNull(entry, "Entry should survive the round trip");
+        assertTrue(fingerprint.sameContent(entry.getFingerprint()), "Fingerprint should survive the round trip");
+        assertEquals(2, entry.getLineCount());
+        assertEquals(Map.of(1L, "HR"), entry.getManagers());
+        assertEquals(Set.of(1L), entry.getReferencedManagers());
+        assertEquals(stats, loaded.getStatisticLines());
+    }
+
+    @Test
+    void testLoadMissingManifestReturnsEmpty() throws IOException {
+        InputManifest loaded = InputManifest.load(tempDir.resolve("absent.bin"));
+        assertTrue(loaded.getEntries().isEmpty(), "Missing manifest should mean a full rebuild");
+    }
+
+    @Test
+    void testFingerprintDetectsContentChange() throws IOException {
+        Path file = tempDir.resolve("b.sb");
+        Files.writeString(file, "Manager,1,Jane,5000,HR\n");
+        FileFingerprint before = FileFingerprint.of(file, null);
+
+        Files.writeString(file, "Manager,1,Jane,5001,HR\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        FileFingerprint after = FileFingerprint.of(file, before);
+
+        assertFalse(after.sameContent(before), "Same size but different bytes should be detected by the hash");
+    }
+
+    @Test
+    void testManagerIndexKeepsFirstDeclaration() {
+        InputManifest.Entry first = new InputManifest.Entry("a.sb", new FileFingerprint(1, 1, 1), 1, Map.of(1L, "HR"), Set.of());
+        InputManifest.Entry second = new InputManifest.Entry("b.sb", new FileFingerprint(1, 1, 2), 1, Map.of(1L, "IT"), Set.of());
+        InputManifest manifest = new InputManifest("", List.of(first, second), new TreeMap<>());
+
+        assertEquals("HR", manifest.managerIndex().get(1L), "First declaration in file order should win, as in a full run");
+    }
+}
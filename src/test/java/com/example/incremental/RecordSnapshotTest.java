@@ -0,0 +1,85 @@
+package com.example.incremental;
+
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordSnapshotTest {
+
+    private Path tempDir;
+    private Path input;
+    private RecordSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("test-snapshot-");
+        input = tempDir.resolve("a.sb");
+        Files.writeString(input, "Manager,1,Jane Smith,5000,HR\nEmployee,101,Jöhn Doe,3000.5,1\n");
+        snapshot = new RecordSnapshot(tempDir.resolve("records.snapshot"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testLoadReturnsSavedDepartmentsInOrder() throws IOException {
+        Map<String, List<EmployeeRecord>> departmentData = new HashMap<>();
+        departmentData.put("HR", new ArrayList<>(List.of(
+                EmployeeRecord.manager(1, "Jane Smith", 500000, "HR"),
+                EmployeeRecord.employee(101, "Jöhn Doe", 300050, 1))));
+        departmentData.put("IT", new ArrayList<>(List.of(EmployeeRecord.manager(2, "Max", 700000, "IT"))));
+
+        Map<String, FileFingerprint> fingerprints = snapshot.fingerprint(List.of(input));
+        snapshot.save("text", fingerprints, departmentData);
+        Map<String, List<EmployeeRecord>> loaded = snapshot.load("text", snapshot.fingerprint(List.of(input)));
+
+        assertNotNull(loaded, "Snapshot should be reused for unchanged input");
+        assertEquals(List.of("Manager,1,Jane Smith,5000,HR", "Employee,101,Jöhn Doe,3000.50,1"),
+                loaded.get("HR").stream().map(EmployeeRecord::toLine).toList());
+        assertEquals(List.of("Manager,2,Max,7000,IT"), loaded.get("IT").stream().map(EmployeeRecord::toLine).toList());
+    }
+
+    @Test
+    void testLoadKeepsTextIdsAndSalaryText() throws IOException {
+        long managerId = EmployeeId.of("001");
+        Map<String, List<EmployeeRecord>> departmentData = Map.of("HR", List.of(
+                EmployeeRecord.manager(managerId, "Jane Smith", 253500, "2535.00", "HR"),
+                EmployeeRecord.employee(EmployeeId.of("A-17"), "John Doe", 300000, managerId)));
+        snapshot.save("text", snapshot.fingerprint(List.of(input)), departmentData);
+
+        Map<String, List<EmployeeRecord>> loaded = snapshot.load("text", snapshot.fingerprint(List.of(input)));
+
+        assertEquals(List.of("Manager,001,Jane Smith,2535.00,HR", "Employee,A-17,John Doe,3000,001"),
+                loaded.get("HR").stream().map(EmployeeRecord::toLine).toList());
+    }
+
+    @Test
+    void testLoadMissesWhenInputOrReaderChanges() throws IOException {
+        Map<String, List<EmployeeRecord>> departmentData = Map.of("HR", List.of(EmployeeRecord.manager(1, "Jane Smith", 500000, "HR")));
+        snapshot.save("text", snapshot.fingerprint(List.of(input)), departmentData);
+
+        assertNull(snapshot.load("mmap", snapshot.fingerprint(List.of(input))), "Different reader should not reuse the snapshot");
+
+        Files.writeString(input, "Manager,1,Jane Smith,5001,HR\n");
+        Files.setLastModifiedTime(input, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertNull(snapshot.load("text", snapshot.fingerprint(List.of(input))), "Changed input should not reuse the snapshot");
+    }
+}
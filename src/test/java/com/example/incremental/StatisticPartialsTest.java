@@ -0,0 +1,89 @@
+package com.example.incremental;
+
+import com.example.statistic.QuantileSketch;
+import com.example.statistic.SalaryStatistic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatisticPartialsTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("test-partials-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() throws IOException {
+        Path file = tempDir.resolve("a.sb");
+        Files.writeString(file, "Manager,1,Jane,5000,HR\nEmployee,2,John,3000,1\nEmployee,3,Ann,4000,1\n");
+        SalaryStatistic salaries = statistic(300000, 400000);
+        StatisticPartials partials = new StatisticPartials("text|1.0",
+                List.of(new StatisticPartials.Entry("a.sb", FileFingerprint.of(file, null), 3, Map.of(1L, "HR"), Map.of(1L, salaries))));
+        partials.save(tempDir.resolve("partials.bin"));
+
+        StatisticPartials loaded = StatisticPartials.load(tempDir.resolve("partials.bin"));
+        assertEquals("text|1.0", loaded.getConfigSignature());
+        StatisticPartials.Entry entry = loaded.getEntries().get(0);
+        assertEquals("a.sb", entry.getFileName());
+        assertEquals(3, entry.getLineCount());
+        assertEquals(Map.of(1L, "HR"), entry.getManagers());
+        SalaryStatistic restored = entry.getSalariesByManager().get(1L);
+        assertEquals(2, restored.count());
+        assertEquals(300000, restored.min());
+        assertEquals(400000, restored.max());
+        assertEquals(700000, restored.sum());
+        assertEquals(salaries.quantile(0.5), restored.quantile(0.5), "Sketch should survive the round trip");
+    }
+
+    @Test
+    void testDepartmentStatisticsResolveManagersAcrossFiles() {
+        // Сотрудники первого файла ссылаются на менеджера из второго; повторное объявление менеджера 1 в третьем файле игнорируется
+        StatisticPartials partials = new StatisticPartials("text|0", List.of(
+                entry("a.sb", Map.of(1L, "HR"), Map.of(2L, statistic(100000, 200000), 9L, statistic(999900))),
+                entry("b.sb", Map.of(2L, "IT"), Map.of(1L, statistic(50000), 2L, statistic(300000))),
+                entry("c.sb", Map.of(1L, "Other", 3L, "Empty"), Map.of(1L, statistic(70000)))));
+
+        SortedMap<String, SalaryStatistic> statistics = partials.rollup(SalaryStatistic::new).departments();
+
+        assertEquals(List.of("Empty", "HR", "IT"), List.copyOf(statistics.keySet()));
+        assertEquals(0, statistics.get("Empty").count());
+        assertEquals(2, statistics.get("HR").count());
+        assertEquals(120000, statistics.get("HR").sum());
+        assertEquals(3, statistics.get("IT").count());
+        assertEquals(100000, statistics.get("IT").min());
+        assertEquals(300000, statistics.get("IT").max());
+    }
+
+    private static StatisticPartials.Entry entry(String fileName, Map<Long, String> managers, Map<Long, SalaryStatistic> salaries) {
+        return new StatisticPartials.Entry(fileName, null, 1, new LinkedHashMap<>(managers), salaries);
+    }
+
+    private static SalaryStatistic statistic(long... salaries) {
+        SalaryStatistic statistic = new SalaryStatistic(new QuantileSketch(0.01));
+        for (long salary : salaries) {
+            statistic.add(salary);
+        }
+        return statistic;
+    }
+}
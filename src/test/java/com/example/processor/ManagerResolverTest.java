@@ -0,0 +1,127 @@
+package com.example.processor;
+
+import com.example.model.EmployeeId;
+import com.example.model.EmployeeRecord;
+import com.example.statistic.SalaryStatistic;
+import com.example.statistic.StatisticRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ManagerResolverTest {
+
+    private Map<Long, String> managerDepartments;
+    private Map<String, List<EmployeeRecord>> departmentData;
+    private ManagerResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        managerDepartments = new HashMap<>();
+        departmentData = new HashMap<>();
+        resolver = new ManagerResolver(managerDepartments, departmentData);
+    }
+
+    @Test
+    void testEmployeeBeforeManagerIsDrainedOnManagerArrival() {
+        EmployeeRecord employee = EmployeeRecord.employee(101, "John Doe", 300000, 1);
+        EmployeeRecord manager = EmployeeRecord.manager(1, "Jane Smith", 500000, "HR");
+
+        resolver.addEmployee(employee);
+        assertTrue(departmentData.isEmpty(), "Employee should wait until the manager is known");
+
+        resolver.addManager(manager, "Manager,1,Jane Smith,5000,HR");
+
+        List<EmployeeRecord> hr = departmentData.get("HR");
+        assertEquals(2, hr.size(), "Department should contain manager and parked employee");
+        assertSame(manager, hr.get(0), "Manager should come first");
+        assertSame(employee, hr.get(1), "Parked employee should follow the manager");
+    }
+
+    @Test
+    void testEmployeeAfterManagerIsRoutedImmediately() {
+        resolver.addManager(EmployeeRecord.manager(1, "Jane Smith", 500000, "HR"), "line");
+        resolver.addEmployee(EmployeeRecord.employee(101, "John Doe", 300000, 1));
+
+        assertEquals(2, departmentData.get("HR").size(), "Employee should be routed to the manager's department");
+    }
+
+    @Test
+    void testDuplicateManagerKeepsFirstDepartment() {
+        resolver.addManager(EmployeeRecord.manager(1, "Jane Smith", 500000, "HR"), "line1");
+        resolver.addManager(EmployeeRecord.manager(1, "Other", 500000, "Sales"), "line2");
+
+        assertEquals("HR", managerDepartments.get(1L), "First manager with the ID should win");
+        assertFalse(departmentData.containsKey("Sales"), "Duplicate manager should not create a department");
+    }
+
+    @Test
+    void testIdsDifferingOnlyInLeadingZerosAreDistinctManagers() {
+        resolver.addManager(EmployeeRecord.manager(1, "Jane Smith", 500000, "HR"), "line1");
+        resolver.addManager(EmployeeRecord.manager(EmployeeId.of("001"), "Other", 500000, "Sales"), "line2");
+        resolver.addEmployee(EmployeeRecord.employee(101, "John Doe", 300000, EmployeeId.of("001")));
+
+        assertEquals(1, departmentData.get("HR").size(), "\"001\" is not the same manager as \"1\"");
+        assertEquals(2, departmentData.get("Sales").size(), "Employee should follow the manager with the same ID text");
+    }
+
+    @Test
+    void testFinishReturnsEmployeesWithoutManager() {
+        EmployeeRecord orphan = EmployeeRecord.employee(102, "Emily Johnson", 300000, 9);
+        resolver.addEmployee(orphan);
+
+        List<EmployeeRecord> unresolved = new ArrayList<>();
+        resolver.finish(unresolved);
+
+        assertEquals(1, unresolved.size(), "Orphan employee should be reported at end of input");
+        assertSame(orphan, unresolved.get(0));
+    }
+
+    @Test
+    void testStatisticsFollowRoutedEmployees() {
+        Map<String, SalaryStatistic> statistics = new HashMap<>();
+        resolver = new ManagerResolver(managerDepartments, departmentData, statistics);
+
+        resolver.addEmployee(EmployeeRecord.employee(101, "Early", 250000, 1));
+        resolver.addEmployee(EmployeeRecord.employee(102, "Orphan", 900000, 7));
+        resolver.addManager(EmployeeRecord.manager(1, "Jane Smith", 500000, "HR"), "line");
+        resolver.addEmployee(EmployeeRecord.employee(103, "Late", 150001, 1));
+
+        SalaryStatistic hr = statistics.get("HR");
+        assertEquals(2, hr.count(), "Only employees routed to HR should be counted, not the manager or orphans");
+        assertEquals(150001, hr.min());
+        assertEquals(250000, hr.max());
+        assertEquals(400001, hr.sum(), "Sum in cents should be exact");
+        assertEquals(1, statistics.size(), "Unresolved employees should not create statistics");
+    }
+
+    @Test
+    void testManagerStatisticsRollUpToDepartmentsAndTotal() {
+        Map<Long, SalaryStatistic> managerStatistics = new HashMap<>();
+        resolver = new ManagerResolver(managerDepartments, departmentData, null, managerStatistics, SalaryStatistic::new);
+
+        resolver.addEmployee(EmployeeRecord.employee(101, "Early", 250000, 1));
+        resolver.addManager(EmployeeRecord.manager(1, "Jane Smith", 500000, "HR"), "line1");
+        resolver.addManager(EmployeeRecord.manager(2, "John Brown", 500000, "HR"), "line2");
+        resolver.addManager(EmployeeRecord.manager(3, "Ann Lee", 500000, "IT"), "line3");
+        resolver.addEmployee(EmployeeRecord.employee(102, "Late", 150001, 1));
+        resolver.addEmployee(EmployeeRecord.employee(103, "Dev", 400000, 3));
+        resolver.addEmployee(EmployeeRecord.employee(104, "Orphan", 900000, 7));
+
+        StatisticRollup rollup = new StatisticRollup(managerDepartments, managerStatistics, SalaryStatistic::new);
+
+        assertEquals(2, rollup.managers("HR").get(1L).count());
+        assertEquals(0, rollup.managers("HR").get(2L).count(), "Manager without employees should still be listed");
+        assertEquals(400001, rollup.departments().get("HR").sum());
+        assertEquals(400000, rollup.departments().get("IT").sum());
+        assertEquals(3, rollup.total().count(), "Total should cover every routed employee but not orphans");
+        assertEquals(800001, rollup.total().sum());
+        assertEquals(150001, rollup.total().min());
+        assertEquals(400000, rollup.total().max());
+    }
+}
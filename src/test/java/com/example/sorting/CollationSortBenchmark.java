@@ -0,0 +1,77 @@
+package com.example.sorting;
+
+import com.example.enums.AppConstants;
+import com.example.model.EmployeeRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Сортировка по имени на отделе со смешанными кириллическими и латинскими именами с диакритикой.
+// Запуск: mvn test-compile && java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main CollationSortBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollationSortBenchmark {
+    private static final String[] FIRST_NAMES = {"Алёна", "Ёлкин", "Ежов", "Émile", "Zoë", "Łukasz", "Ärger", "Иван", "Olga", "Çelik"};
+    private static final String[] LAST_NAMES = {"Петров", "Šimek", "Müller", "Смирнова", "Øster", "Zhang", "Фёдоров", "Núñez"};
+    private static final Locale COLLATION = Locale.forLanguageTag("ru");
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private List<EmployeeRecord> department;
+    private final EmployeeDataSorter codePointSorter = new EmployeeDataSorter();
+    private final EmployeeDataSorter collationSorter = new EmployeeDataSorter(EmployeeDataSorter.DEFAULT_PARALLEL_THRESHOLD, COLLATION);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        department = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + random.nextInt(rows / 10);
+            department.add(EmployeeRecord.employee(i + 2, name, 100000 + random.nextInt(800000), 1));
+        }
+    }
+
+    // Текущий порядок по кодам символов
+    @Benchmark
+    public List<EmployeeRecord> codePoint() {
+        List<EmployeeRecord> data = new ArrayList<>(department);
+        codePointSorter.sortData(data, AppConstants.SORT_NAME.getValue(), AppConstants.ORDER_ASC.getValue());
+        return data;
+    }
+
+    // Наивный вариант: Collator.compare на каждое сравнение
+    @Benchmark
+    public List<EmployeeRecord> collatorPerComparison() {
+        List<EmployeeRecord> data = new ArrayList<>(department);
+        Collator collator = Collator.getInstance(COLLATION);
+        data.sort((a, b) -> collator.compare(a.name(), b.name()));
+        return data;
+    }
+
+    @Benchmark
+    public List<EmployeeRecord> cachedCollationKeys() {
+        List<EmployeeRecord> data = new ArrayList<>(department);
+        collationSorter.sortData(data, AppConstants.SORT_NAME.getValue(), AppConstants.ORDER_ASC.getValue());
+        return data;
+    }
+}
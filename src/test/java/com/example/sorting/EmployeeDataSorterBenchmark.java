@@ -0,0 +1,84 @@
+package com.example.sorting;
+
+import com.example.enums.AppConstants;
+import com.example.model.EmployeeRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Запуск: mvn test-compile && java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main EmployeeDataSorterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeDataSorterBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    @Param({"salary", "name"})
+    private String sortBy;
+
+    private List<EmployeeRecord> department;
+    private final EmployeeDataSorter sorter = new EmployeeDataSorter();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        department = new ArrayList<>(rows + 1);
+        department.add(EmployeeRecord.manager(1, "Boss", 1000000, "Dept"));
+        for (int i = 0; i < rows; i++) {
+            department.add(EmployeeRecord.employee(i + 2, "Name " + random.nextInt(rows), 100000 + random.nextInt(800000), 1));
+        }
+    }
+
+    // Прежний путь: List.sort с компаратором, который на каждое сравнение заново разбирает роль и критерий
+    @Benchmark
+    public List<EmployeeRecord> recordComparator() {
+        List<EmployeeRecord> data = new ArrayList<>(department);
+        EmployeeRecord manager = data.remove(0);
+        data.sort(recordComparator(sortBy, AppConstants.ORDER_DESC.getValue()));
+        data.add(0, manager);
+        return data;
+    }
+
+    @Benchmark
+    public List<EmployeeRecord> sorterIndex() {
+        List<EmployeeRecord> data = new ArrayList<>(department);
+        sorter.sortData(data, sortBy, AppConstants.ORDER_DESC.getValue());
+        return data;
+    }
+
+    private static Comparator<EmployeeRecord> recordComparator(String sortBy, String order) {
+        return (a, b) -> {
+            boolean employeeA = !a.isManager();
+            boolean employeeB = !b.isManager();
+            if (!employeeA || !employeeB) {
+                return Boolean.compare(employeeA, employeeB);
+            }
+            int comparison = 0;
+            if (AppConstants.SORT_NAME.getValue().equals(sortBy)) {
+                comparison = a.name().compareTo(b.name());
+            } else if (AppConstants.SORT_SALARY.getValue().equals(sortBy)) {
+                comparison = Long.compare(a.salary(), b.salary());
+            }
+            return AppConstants.ORDER_DESC.getValue().equals(order) ? -comparison : comparison;
+        };
+    }
+}
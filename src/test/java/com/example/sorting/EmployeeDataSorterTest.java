@@ -1,13 +1,18 @@
 package com.example.sorting;
 
 import com.example.enums.AppConstants;
+import com.example.enums.Role;
 import com.example.logging.FileErrorLogger;
+import com.example.model.EmployeeRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,42 +32,42 @@ public class EmployeeDataSorterTest {
 
     @Test
     void testSortDataWithManagerAndEmployeesByNameAsc() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[]{"Manager", "001", "Manager Doe", "5000.0", "HR"});
-        data.add(new String[]{"Employee", "002", "Jane Doe", "3000.0", "001"});
-        data.add(new String[]{"Employee", "003", "John Doe", "4000.0", "001"});
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        data.add(EmployeeRecord.employee(2, "Jane Doe", 300000, 1));
+        data.add(EmployeeRecord.employee(3, "John Doe", 400000, 1));
 
         sorter.sortData(data, AppConstants.SORT_NAME.getValue(), AppConstants.ORDER_ASC.getValue());
 
         assertEquals(3, data.size(), "List size should remain 3");
-        assertEquals("Manager", data.get(0)[0], "First entry should be Manager");
-        assertEquals("Jane Doe", data.get(1)[2], "Second entry should be Jane Doe");
-        assertEquals("John Doe", data.get(2)[2], "Third entry should be John Doe");
+        assertEquals(Role.MANAGER, data.get(0).role(), "First entry should be Manager");
+        assertEquals("Jane Doe", data.get(1).name(), "Second entry should be Jane Doe");
+        assertEquals("John Doe", data.get(2).name(), "Third entry should be John Doe");
         verifyNoInteractions(fileErrorLogger);
     }
 
     @Test
     void testSortDataWithManagerAndEmployeesBySalaryDesc() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[]{"Manager", "001", "Manager Doe", "5000.0", "HR"});
-        data.add(new String[]{"Employee", "002", "Jane Doe", "3000.0", "001"});
-        data.add(new String[]{"Employee", "003", "John Doe", "4000.0", "001"});
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        data.add(EmployeeRecord.employee(2, "Jane Doe", 300000, 1));
+        data.add(EmployeeRecord.employee(3, "John Doe", 400000, 1));
 
         sorter.sortData(data, AppConstants.SORT_SALARY.getValue(), AppConstants.ORDER_DESC.getValue());
 
         assertEquals(3, data.size(), "List size should remain 3");
-        assertEquals("Manager", data.get(0)[0], "First entry should be Manager");
-        assertEquals("4000.0", data.get(1)[3], "Second entry should be Manager Doe with highest salary");
-        assertEquals("3000.0", data.get(2)[3], "Third entry should be John Doe");
+        assertEquals(Role.MANAGER, data.get(0).role(), "First entry should be Manager");
+        assertEquals(400000, data.get(1).salary(), "Second entry should be Manager Doe with highest salary");
+        assertEquals(300000, data.get(2).salary(), "Third entry should be John Doe");
         verifyNoInteractions(fileErrorLogger);
     }
 
     @Test
     void testSortDataWithNullOrEmptyInput() {
-        List<String[]> nullData = null;
-        List<String[]> emptyData = new ArrayList<>();
-        List<String[]> dataWithManager = new ArrayList<>();
-        dataWithManager.add(new String[]{"Manager", "001", "Manager Doe", "5000.0", "HR"});
+        List<EmployeeRecord> nullData = null;
+        List<EmployeeRecord> emptyData = new ArrayList<>();
+        List<EmployeeRecord> dataWithManager = new ArrayList<>();
+        dataWithManager.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
 
         sorter.sortData(nullData, AppConstants.SORT_NAME.getValue(), AppConstants.ORDER_ASC.getValue());
         sorter.sortData(emptyData, AppConstants.SORT_NAME.getValue(), AppConstants.ORDER_ASC.getValue());
@@ -71,49 +76,189 @@ public class EmployeeDataSorterTest {
         assertNull(nullData, "Null list should remain null");
         assertTrue(emptyData.isEmpty(), "Empty list should remain empty");
         assertEquals(1, dataWithManager.size(), "List with manager should retain manager");
-        assertEquals("Manager", dataWithManager.get(0)[0], "Manager should remain in list");
+        assertEquals(Role.MANAGER, dataWithManager.get(0).role(), "Manager should remain in list");
         verifyNoInteractions(fileErrorLogger);
     }
 
     @Test
     void testSortDataWithValidSalaries() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[]{"Manager", "001", "Manager Doe", "5000.0", "HR"});
-        data.add(new String[]{"Employee", "002", "Jane Doe", "3000.0", "001"});
-        data.add(new String[]{"Employee", "003", "John Doe", "4000.0", "001"});
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        data.add(EmployeeRecord.employee(2, "Jane Doe", 300000, 1));
+        data.add(EmployeeRecord.employee(3, "John Doe", 400000, 1));
 
         sorter.sortData(data, AppConstants.SORT_SALARY.getValue(), AppConstants.ORDER_ASC.getValue());
 
         assertEquals(3, data.size(), "List size should remain 3");
-        assertEquals("Manager", data.get(0)[0], "First entry should be Manager");
-        assertEquals("3000.0", data.get(1)[3], "Second entry should be Jane Doe with lowest salary");
-        assertEquals("4000.0", data.get(2)[3], "Third entry should be John Doe with highest salary");
+        assertEquals(Role.MANAGER, data.get(0).role(), "First entry should be Manager");
+        assertEquals(300000, data.get(1).salary(), "Second entry should be Jane Doe with lowest salary");
+        assertEquals(400000, data.get(2).salary(), "Third entry should be John Doe with highest salary");
         verifyNoInteractions(fileErrorLogger);
     }
 
     @Test
     void testExtractManagerWithMultipleEmployees() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[]{"Employee", "002", "Jane Doe", "3000.0", "001"});
-        data.add(new String[]{"Manager", "001", "Manager Doe", "5000.0", "HR"});
-        data.add(new String[]{"Employee", "003", "John Doe", "4000.0", "001"});
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.employee(2, "Jane Doe", 300000, 1));
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        data.add(EmployeeRecord.employee(3, "John Doe", 400000, 1));
 
-        String[] manager = sorter.extractManager(data);
+        EmployeeRecord manager = sorter.extractManager(data);
 
-        assertEquals("Manager", manager[0], "Extracted manager role should be 'Manager'");
+        assertEquals(Role.MANAGER, manager.role(), "Extracted manager role should be 'Manager'");
         assertEquals(2, data.size(), "List should contain 2 employees after extraction");
-        assertEquals("Employee", data.get(0)[0], "First remaining entry should be Employee");
+        assertEquals(Role.EMPLOYEE, data.get(0).role(), "First remaining entry should be Employee");
     }
 
     @Test
     void testExtractManagerWithNoManager() {
-        List<String[]> data = new ArrayList<>();
-        data.add(new String[]{"Employee", "002", "Jane Doe", "3000.0", "001"});
-        data.add(new String[]{"Employee", "003", "John Doe", "4000.0", "001"});
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.employee(2, "Jane Doe", 300000, 1));
+        data.add(EmployeeRecord.employee(3, "John Doe", 400000, 1));
 
-        String[] manager = sorter.extractManager(data);
+        EmployeeRecord manager = sorter.extractManager(data);
 
         assertNull(manager, "Should return null if no manager exists");
         assertEquals(2, data.size(), "List size should remain unchanged");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSelectTopMatchesPrefixOfStableSort() {
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            // Мало различных значений, чтобы было много равных ключей
+            data.add(EmployeeRecord.employee(i + 2, "Name " + random.nextInt(20), 100000 + random.nextInt(20) * 100, 1));
+        }
+
+        for (String sortBy : new String[]{AppConstants.SORT_SALARY.getValue(), AppConstants.SORT_NAME.getValue()}) {
+            for (String order : new String[]{AppConstants.ORDER_ASC.getValue(), AppConstants.ORDER_DESC.getValue()}) {
+                List<EmployeeRecord> sorted = new ArrayList<>(data);
+                sorter.sortData(sorted, sortBy, order);
+
+                List<EmployeeRecord> top = sorter.selectTop(data, sortBy, order, 25);
+
+                assertEquals(sorted.subList(0, 26), top, "Manager and top rows should match the sorted prefix for " + sortBy + " " + order);
+            }
+        }
+        assertEquals(501, data.size(), "Source list should not be modified");
+    }
+
+    @Test
+    void testSelectTopWithoutSortUsesHighestSalaries() {
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.employee(2, "Jane Doe", 300000, 1));
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        data.add(EmployeeRecord.employee(3, "John Doe", 400000, 1));
+        data.add(EmployeeRecord.employee(4, "Jim Doe", 100000, 1));
+
+        List<EmployeeRecord> top = sorter.selectTop(data, null, null, 2);
+
+        assertEquals(3, top.size(), "Manager plus two employees expected");
+        assertEquals(Role.MANAGER, top.get(0).role(), "Manager should come first");
+        assertEquals(400000, top.get(1).salary());
+        assertEquals(300000, top.get(2).salary());
+    }
+
+    @Test
+    void testParallelSortKeepsStableOrderAndManagersFirst() {
+        // Сортировка по имени идёт через сравнение, а не через поразрядную сортировку, поэтому работает параллельное слияние
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.employee(2, "Jane Doe", 300000, 1));
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        Random random = new Random(11);
+        for (int i = 0; i < 50000; i++) {
+            data.add(EmployeeRecord.employee(i + 3, "Name " + random.nextInt(100), 100000 + random.nextInt(50) * 100, 1));
+        }
+        data.add(EmployeeRecord.manager(99, "Second Manager", 500000, "HR"));
+
+        for (String order : new String[]{AppConstants.ORDER_ASC.getValue(), AppConstants.ORDER_DESC.getValue()}) {
+            List<EmployeeRecord> sequential = new ArrayList<>(data);
+            List<EmployeeRecord> parallel = new ArrayList<>(data);
+            sorter.sortData(sequential, AppConstants.SORT_NAME.getValue(), order);
+            new EmployeeDataSorter(1000).sortData(parallel, AppConstants.SORT_NAME.getValue(), order);
+
+            assertEquals(sequential, parallel, "Parallel sort should produce the same stable order");
+            assertEquals(1, parallel.get(0).id(), "First manager should stay on top");
+            assertEquals(99, parallel.get(1).id(), "Other managers should follow before employees");
+        }
+    }
+
+    @Test
+    void testRadixSalarySortIsStableInBothOrders() {
+        List<EmployeeRecord> data = new ArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < EmployeeDataSorter.RADIX_THRESHOLD * 4; i++) {
+            data.add(EmployeeRecord.employee(i + 2, "Name " + i, 100000 + random.nextInt(20) * 70000L, 1));
+        }
+
+        for (String order : new String[]{AppConstants.ORDER_ASC.getValue(), AppConstants.ORDER_DESC.getValue()}) {
+            boolean descending = AppConstants.ORDER_DESC.getValue().equals(order);
+            List<EmployeeRecord> expected = new ArrayList<>(data);
+            Comparator<EmployeeRecord> bySalary = Comparator.comparingLong(EmployeeRecord::salary);
+            expected.sort(descending ? bySalary.reversed() : bySalary);
+            List<EmployeeRecord> sorted = new ArrayList<>(data);
+            sorter.sortData(sorted, AppConstants.SORT_SALARY.getValue(), order);
+
+            assertEquals(expected, sorted, "Radix sort should match a stable comparison sort");
+        }
+    }
+
+    @Test
+    void testSortPathForSalaryAndOtherKeys() {
+        EmployeeDataSorter sorter = new EmployeeDataSorter(EmployeeDataSorter.RADIX_THRESHOLD * 2);
+        String salary = AppConstants.SORT_SALARY.getValue();
+        String asc = AppConstants.ORDER_ASC.getValue();
+        int small = EmployeeDataSorter.RADIX_THRESHOLD - 1;
+        int large = EmployeeDataSorter.RADIX_THRESHOLD * 4;
+
+        assertEquals(EmployeeDataSorter.SortPath.SEQUENTIAL, sorter.sortPath(small, salary, asc));
+        assertEquals(EmployeeDataSorter.SortPath.RADIX, sorter.sortPath(EmployeeDataSorter.RADIX_THRESHOLD, salary, asc));
+        assertEquals(EmployeeDataSorter.SortPath.RADIX, sorter.sortPath(large, salary, asc),
+                "Salary-only sort should stay radix above the parallel threshold");
+        assertEquals(EmployeeDataSorter.SortPath.PARALLEL, sorter.sortPath(large, "salary,name", "asc,asc"));
+        assertEquals(EmployeeDataSorter.SortPath.PARALLEL, sorter.sortPath(large, AppConstants.SORT_NAME.getValue(), asc));
+        assertEquals(EmployeeDataSorter.SortPath.SEQUENTIAL, sorter.sortPath(EmployeeDataSorter.RADIX_THRESHOLD * 2, AppConstants.SORT_NAME.getValue(), asc),
+                "Rows equal to the threshold should not go parallel");
+        assertEquals(EmployeeDataSorter.SortPath.PARALLEL, new EmployeeDataSorter(1).sortPath(small, salary, asc),
+                "Below the radix threshold salary sort should follow the parallel threshold like other keys");
+    }
+
+    @Test
+    void testSortDataByMultipleKeys() {
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        data.add(EmployeeRecord.employee(2, "Carl", 300000, 1));
+        data.add(EmployeeRecord.employee(3, "Anna", 200000, 1));
+        data.add(EmployeeRecord.employee(4, "Bob", 300000, 1));
+        data.add(EmployeeRecord.employee(5, "Anna", 300000, 1));
+
+        sorter.sortData(data, "salary,name", "desc,asc");
+
+        assertEquals(List.of(1L, 5L, 4L, 2L, 3L), data.stream().map(EmployeeRecord::id).toList(),
+                "Salary desc should order first, ties broken by name asc");
+
+        sorter.sortData(data, "name,salary", "asc,desc");
+
+        assertEquals(List.of(1L, 5L, 3L, 4L, 2L), data.stream().map(EmployeeRecord::id).toList(),
+                "Name asc should order first, ties broken by salary desc");
+    }
+
+    @Test
+    void testSortDataByNameWithCollation() {
+        List<EmployeeRecord> data = new ArrayList<>();
+        data.add(EmployeeRecord.manager(1, "Manager Doe", 500000, "HR"));
+        data.add(EmployeeRecord.employee(2, "Ёжиков", 100000, 1));
+        data.add(EmployeeRecord.employee(3, "Zoe", 100000, 1));
+        data.add(EmployeeRecord.employee(4, "Абрамов", 100000, 1));
+        data.add(EmployeeRecord.employee(5, "Émile", 100000, 1));
+        data.add(EmployeeRecord.employee(6, "Ежов", 100000, 1));
+
+        new EmployeeDataSorter(EmployeeDataSorter.DEFAULT_PARALLEL_THRESHOLD, Locale.forLanguageTag("ru"))
+                .sortData(data, AppConstants.SORT_NAME.getValue(), AppConstants.ORDER_ASC.getValue());
+
+        assertEquals(List.of(1L, 5L, 3L, 4L, 2L, 6L), data.stream().map(EmployeeRecord::id).toList(),
+                "Names should follow Russian collation instead of code point order");
+    }
+}
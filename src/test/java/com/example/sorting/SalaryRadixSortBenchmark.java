@@ -0,0 +1,52 @@
+package com.example.sorting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение поразрядной сортировки с сортировкой слиянием по компаратору на ключах зарплаты.
+// Запуск: mvn test-compile && java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main SalaryRadixSortBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SalaryRadixSortBenchmark {
+
+    @Param({"256", "1024", "100000", "1000000", "5000000"})
+    private int rows;
+
+    private long[] salaries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        salaries = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            salaries[i] = 100000 + random.nextInt(800000);
+        }
+    }
+
+    @Benchmark
+    public int[] comparatorMerge() {
+        long[] keys = salaries;
+        return IndexSort.sortedOrder(keys.length, (a, b) -> Long.compare(keys[b], keys[a]));
+    }
+
+    @Benchmark
+    public int[] radix() {
+        return RadixSort.sortedOrder(salaries, true);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.spill;
+
+import com.example.enums.AppConstants;
+import com.example.model.EmployeeRecord;
+import com.example.sorting.EmployeeDataSorter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DepartmentSpillTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMergedRunsMatchInMemorySort() throws IOException {
+        EmployeeDataSorter sorter = new EmployeeDataSorter();
+        String sortBy = AppConstants.SORT_SALARY.getValue() + "," + AppConstants.SORT_NAME.getValue();
+        String order = AppConstants.ORDER_DESC.getValue() + "," + AppConstants.ORDER_ASC.getValue();
+        List<EmployeeRecord> input = departmentInput();
+
+        Map<String, List<EmployeeRecord>> departmentData = new HashMap<>();
+        Path spillDir = Files.createDirectory(tempDir.resolve("spill"));
+        List<EmployeeRecord> merged = new ArrayList<>();
+        try (DepartmentSpill spill = new DepartmentSpill(spillDir, 2000, departmentData, records -> sorter.sortData(records, sortBy, order))) {
+            for (EmployeeRecord record : input) {
+                departmentData.computeIfAbsent("Dept", k -> new ArrayList<>()).add(record);
+                spill.recordRouted(record);
+            }
+            assertTrue(spill.runCount() > 1, "Small budget should produce several runs");
+
+            try (DepartmentSpill.Records records = spill.merged("Dept", sorter.recordComparator(sortBy, order))) {
+                records.forEachRemaining(merged::add);
+            }
+        }
+
+        List<EmployeeRecord> expected = new ArrayList<>(input);
+        sorter.sortData(expected, sortBy, order);
+        assertEquals(expected.toString(), merged.toString(), "Merged runs should give the same stable order as sorting in memory");
+        assertFalse(Files.exists(spillDir), "Run files should be removed on close");
+    }
+
+    @Test
+    void testUnsortedMergeKeepsInputOrder() throws IOException {
+        List<EmployeeRecord> input = departmentInput();
+
+        Map<String, List<EmployeeRecord>> departmentData = new HashMap<>();
+        List<EmployeeRecord> merged = new ArrayList<>();
+        try (DepartmentSpill spill = new DepartmentSpill(Files.createDirectory(tempDir.resolve("spill")), 2000, departmentData, records -> { })) {
+            for (EmployeeRecord record : input) {
+                departmentData.computeIfAbsent("Dept", k -> new ArrayList<>()).add(record);
+                spill.recordRouted(record);
+            }
+            try (DepartmentSpill.Records records = spill.merged("Dept", null)) {
+                records.forEachRemaining(merged::add);
+            }
+        }
+
+        assertEquals(input.toString(), merged.toString(), "Without a sort order runs should be concatenated in input order");
+    }
+
+    private static List<EmployeeRecord> departmentInput() {
+        Random random = new Random(3);
+        List<EmployeeRecord> input = new ArrayList<>();
+        input.add(EmployeeRecord.manager(1, "Boss", 700000, "Dept"));
+        for (int i = 0; i < 300; i++) {
+            if (i == 150) {
+                input.add(EmployeeRecord.manager(2, "Second Boss", 600000, "Dept"));
+            }
+            input.add(EmployeeRecord.employee(i + 10, "Name " + random.nextInt(20), 100000 + random.nextInt(5) * 1000L, 1));
+        }
+        return input;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.statistic;
+
+import com.example.model.EmployeeRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DepartmentStatisticCreatorTest {
+
+    private final DepartmentStatisticCreator creator = new DepartmentStatisticCreator();
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("test-statistic-");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testFormatStatisticUsesExactCents() {
+        List<EmployeeRecord> data = List.of(
+                EmployeeRecord.manager(1, "Boss", 900000, "Dept"),
+                EmployeeRecord.employee(2, "A", 103666, 1),
+                EmployeeRecord.employee(3, "B", 300011, 1),
+                EmployeeRecord.employee(4, "C", 100000, 1));
+
+        assertEquals("Dept,1000.00,3000.11,1678.93", creator.formatStatistic("Dept", data),
+                "Min and max should be printed exactly and the mean rounded up to a cent");
+    }
+
+    @Test
+    void testFormatStatisticWithoutEmployees() {
+        List<EmployeeRecord> data = List.of(EmployeeRecord.manager(1, "Boss", 900000, "Dept"));
+
+        assertEquals("Dept,0.00,0.00,0.00", creator.formatStatistic("Dept", data));
+    }
+
+    @Test
+    void testFileOutputStreamsCsvRows() throws IOException {
+        Path output = tempDir.resolve("stats/stat.txt");
+        SortedMap<String, SalaryStatistic> statistics = new TreeMap<>();
+        statistics.put("HR", statistic(100000, 300011));
+        statistics.put("IT", statistic());
+
+        creator.createStatistic(statistics, "file", output.toString());
+
+        assertEquals(List.of("department,min,max,mid", "HR,1000.00,3000.11,2000.06", "IT,0.00,0.00,0.00"), Files.readAllLines(output));
+    }
+
+    @Test
+    void testJsonFormatWritesArrayOfObjects() throws IOException {
+        Path output = tempDir.resolve("stat.json");
+        SortedMap<String, SalaryStatistic> statistics = new TreeMap<>();
+        statistics.put("R\"D", statistic(100005));
+        statistics.put("Sales", statistic(-5, 250000));
+
+        new DepartmentStatisticCreator(0, "json").createStatistic(statistics, "file", output.toString());
+
+        String expected = String.join(System.lineSeparator(),
+                "[",
+                "  {\"department\": \"R\\\"D\", \"min\": 1000.05, \"max\": 1000.05, \"mid\": 1000.05},",
+                "  {\"department\": \"Sales\", \"min\": -0.05, \"max\": 2500.00, \"mid\": 1249.98}",
+                "]", "");
+        assertEquals(expected, Files.readString(output), "Department names should be escaped and amounts written as numbers");
+    }
+
+    private static SalaryStatistic statistic(long... salaries) {
+        SalaryStatistic statistic = new SalaryStatistic();
+        for (long salary : salaries) {
+            statistic.add(salary);
+        }
+        return statistic;
+    }
+}
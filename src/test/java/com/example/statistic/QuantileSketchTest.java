@@ -0,0 +1,52 @@
+package com.example.statistic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantileSketchTest {
+
+    @Test
+    void testQuantilesStayWithinRelativeAccuracy() {
+        double accuracy = 0.01;
+        QuantileSketch sketch = new QuantileSketch(accuracy);
+        Random random = new Random(17);
+        long[] salaries = new long[20000];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = 1000 + (long) (Math.abs(random.nextGaussian()) * 500000);
+            sketch.add(salaries[i]);
+        }
+        Arrays.sort(salaries);
+
+        for (double q : new double[]{0.5, 0.9, 0.99}) {
+            long exact = salaries[(int) (q * (salaries.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - exact) <= exact * accuracy,
+                    "Quantile " + q + " estimate " + estimate + " should be within 1% of " + exact);
+        }
+    }
+
+    @Test
+    void testMergedSketchesMatchSingleSketch() {
+        QuantileSketch whole = new QuantileSketch(0.02);
+        QuantileSketch left = new QuantileSketch(0.02);
+        QuantileSketch right = new QuantileSketch(0.02);
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++) {
+            long salary = random.nextInt(2_000_000) - 1000;
+            whole.add(salary);
+            (i % 3 == 0 ? left : right).add(salary);
+        }
+        left.merge(right);
+
+        assertEquals(whole.count(), left.count());
+        for (double q : new double[]{0.0, 0.25, 0.5, 0.9, 0.99, 1.0}) {
+            assertEquals(whole.quantile(q), left.quantile(q), "Merged sketch should answer like a single sketch at " + q);
+        }
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new QuantileSketch(0.01)),
+                "Sketches with different accuracy should not merge");
+    }
+}